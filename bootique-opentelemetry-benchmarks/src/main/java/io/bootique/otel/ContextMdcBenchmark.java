@@ -0,0 +1,109 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.ContextStorage;
+import io.opentelemetry.context.Scope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.BasicMDCAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a context attach / detach with and without the trace ids MDC injection. "switchSpan" attaches
+ * a context with a different span (the MDC is updated twice), "sameSpan" attaches a context with the same span as the
+ * current one (the MDC is not touched). As slf4j-simple doesn't support MDC, the SLF4J "BasicMDCAdapter" is used.
+ * <p>Run with: {@code java -jar target/benchmarks.jar ContextMdcBenchmark -prof gc}
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContextMdcBenchmark {
+
+    private static final ContextKey<String> KEY = ContextKey.named("key");
+
+    @Param({"false", "true"})
+    public boolean mdc;
+
+    private ContextStorage storage;
+    private Context baseContext;
+    private Context otherSpanContext;
+    private Context sameSpanContext;
+    private Scope baseScope;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        storage = mdc
+                ? new MdcContextStorage(ContextStorage.defaultStorage(), new BasicMDCAdapter())
+                : ContextStorage.defaultStorage();
+
+        baseContext = storage.root().with(Span.wrap(spanContext("b7ad6b7169203331")));
+        otherSpanContext = baseContext.with(Span.wrap(spanContext("00f067aa0ba902b7")));
+        sameSpanContext = baseContext.with(KEY, "value");
+
+        baseScope = storage.attach(baseContext);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        baseScope.close();
+    }
+
+    @Benchmark
+    public void switchSpan() {
+        try (Scope s = storage.attach(otherSpanContext)) {
+            // nothing
+        }
+    }
+
+    @Benchmark
+    public void sameSpan() {
+        try (Scope s = storage.attach(sameSpanContext)) {
+            // nothing
+        }
+    }
+
+    private static SpanContext spanContext(String spanId) {
+        return SpanContext.create(
+                "0af7651916cd43dd8448eb211c80319c",
+                spanId,
+                TraceFlags.getSampled(),
+                TraceState.getDefault());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+ * Measures the cost of JUL calls disabled in SLF4J (the SLF4J level is "warn", so JUL "info" is disabled). With the
+ * "bridge" mode, only the SLF4J bridge is installed, so each call creates a LogRecord and goes through the bridge
+ * before being discarded. With the "propagated" mode, the SLF4J levels are propagated to JUL, and the call is
+ * discarded by JUL level check (run with "-prof gc" to see the allocation rate).
+ * <p>Run with: {@code java -jar target/benchmarks.jar JulDisabledLoggingBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JulDisabledLoggingBenchmark {
+
+    static {
+        // must be set before SLF4J is initialized
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        System.setProperty(
+                "org.slf4j.simpleLogger.logFile",
+                System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+    }
+
+    @Param({"bridge", "propagated"})
+    public String mode;
+
+    private Logger logger;
+    private Object arg;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        // the same JUL setup as in the module before the level propagation was introduced
+        LogManager.getLogManager().reset();
+        SLF4JBridgeHandler.install();
+
+        logger = Logger.getLogger("io.bootique.otel.bench");
+        arg = 5;
+
+        if ("propagated".equals(mode)) {
+            JulBridge.propagateLevels();
+        }
+    }
+
+    @Benchmark
+    public void info() {
+        logger.info("Disabled message");
+    }
+
+    @Benchmark
+    public void infoWithParams() {
+        logger.log(java.util.logging.Level.INFO, "Disabled message {0}", arg);
+    }
+}
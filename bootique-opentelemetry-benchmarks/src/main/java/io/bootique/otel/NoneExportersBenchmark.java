@@ -0,0 +1,132 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.bootique.log.DefaultBootLogger;
+import io.bootique.otel.logger.NoneLogsExporterFactory;
+import io.bootique.otel.logger.SdkLoggerProviderFactory;
+import io.bootique.otel.meter.NoneMetricsExporterFactory;
+import io.bootique.otel.meter.SdkMeterProviderFactory;
+import io.bootique.otel.trace.NoneTracesExporterFactory;
+import io.bootique.otel.trace.SdkTracerProviderFactory;
+import io.bootique.shutdown.DefaultShutdownManager;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.resources.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of recording spans, logs and metrics when all the exporters are "none". With "noop=false", the
+ * SDK providers are used (the behavior before the no-op providers were introduced), so the telemetry is recorded and
+ * then thrown away. With "noop=true", the providers are created by OpenTelemetryFactory and are no-op.
+ * <p>Run with: {@code java -jar target/benchmarks.jar NoneExportersBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NoneExportersBenchmark {
+
+    private static final Attributes ATTRIBUTES = Attributes.of(AttributeKey.stringKey("route"), "/a/b");
+
+    @Param({"false", "true"})
+    public boolean noop;
+
+    private DefaultShutdownManager shutdownManager;
+    private Tracer tracer;
+    private Logger logger;
+    private LongCounter counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        shutdownManager = new DefaultShutdownManager(Duration.ofSeconds(1), new DefaultBootLogger(false));
+
+        SdkTracerProviderFactory tracerProviderFactory = new SdkTracerProviderFactory(shutdownManager)
+                .setExporters(List.of(new NoneTracesExporterFactory()));
+        SdkMeterProviderFactory meterProviderFactory = new SdkMeterProviderFactory(shutdownManager)
+                .setExporters(List.of(new NoneMetricsExporterFactory()));
+        SdkLoggerProviderFactory loggerProviderFactory = new SdkLoggerProviderFactory(shutdownManager)
+                .setExporters(List.of(new NoneLogsExporterFactory()));
+
+        OpenTelemetry otel;
+        if (noop) {
+            otel = new OpenTelemetryFactory(shutdownManager)
+                    .setTracerProvider(tracerProviderFactory)
+                    .setMeterProvider(meterProviderFactory)
+                    .setLoggerProvider(loggerProviderFactory)
+                    .create(Resource.getDefault());
+        } else {
+            SdkMeterProvider meterProvider = meterProviderFactory.create(Resource.getDefault());
+            otel = OpenTelemetrySdk.builder()
+                    .setMeterProvider(meterProvider)
+                    .setTracerProvider(tracerProviderFactory.create(Resource.getDefault(), meterProvider))
+                    .setLoggerProvider(loggerProviderFactory.create(Resource.getDefault(), meterProvider))
+                    .build();
+        }
+
+        tracer = otel.getTracer("benchmark");
+        logger = otel.getLogsBridge().get("benchmark");
+        counter = otel.getMeter("benchmark").counterBuilder("requests").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shutdownManager.shutdown();
+    }
+
+    @Benchmark
+    public void span() {
+        tracer.spanBuilder("request").setAllAttributes(ATTRIBUTES).startSpan().end();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.logRecordBuilder().setSeverity(Severity.INFO).setBody("Request processed").setAllAttributes(ATTRIBUTES).emit();
+    }
+
+    @Benchmark
+    public void counter() {
+        counter.add(1, ATTRIBUTES);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.clock;
+
+import io.bootique.log.DefaultBootLogger;
+import io.bootique.shutdown.DefaultShutdownManager;
+import io.bootique.value.Duration;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the "system" and "cached" clocks. The benchmarks measure the cost of reading the time, and of recording a
+ * span and a log record (that read the time two and one times respectively). Precision (how far behind the system
+ * time the clock is, and the share of zero durations of a ~10 us operation) is printed at the end of each trial.
+ * <p>Run with: {@code java -jar target/benchmarks.jar ClockBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClockBenchmark {
+
+    private static final Attributes ATTRIBUTES = Attributes.of(AttributeKey.stringKey("route"), "/a/b");
+    private static final int PRECISION_SAMPLES = 10_000;
+
+    @Param({"system", "cached-1ms", "cached-10ms"})
+    public String clockType;
+
+    private DefaultShutdownManager shutdownManager;
+    private Clock clock;
+    private SdkTracerProvider tracerProvider;
+    private SdkLoggerProvider loggerProvider;
+    private Tracer tracer;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        shutdownManager = new DefaultShutdownManager(java.time.Duration.ofSeconds(1), new DefaultBootLogger(false));
+        clock = createClockFactory().create(shutdownManager);
+
+        // no processors, so only the span and log record creation is measured
+        tracerProvider = SdkTracerProvider.builder().setClock(clock).build();
+        loggerProvider = SdkLoggerProvider.builder().setClock(clock).build();
+        tracer = tracerProvider.get("benchmark");
+        logger = loggerProvider.get("benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reportPrecision();
+        tracerProvider.close();
+        loggerProvider.close();
+        shutdownManager.shutdown();
+    }
+
+    @Benchmark
+    public long now() {
+        return clock.now();
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return clock.nanoTime();
+    }
+
+    @Benchmark
+    public void span() {
+        tracer.spanBuilder("request").setAllAttributes(ATTRIBUTES).startSpan().end();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.logRecordBuilder().setSeverity(Severity.INFO).setBody("Request processed").setAllAttributes(ATTRIBUTES).emit();
+    }
+
+    private ClockFactory createClockFactory() {
+        return switch (clockType) {
+            case "system" -> new SystemClockFactory();
+            case "cached-1ms" -> new CachedClockFactory().setResolution(new Duration("1ms"));
+            case "cached-10ms" -> new CachedClockFactory().setResolution(new Duration("10ms"));
+            default -> throw new IllegalArgumentException("Unknown clock: " + clockType);
+        };
+    }
+
+    private void reportPrecision() {
+
+        Clock system = Clock.getDefault();
+        long maxLag = 0;
+        long totalLag = 0;
+        int zeroDurations = 0;
+
+        for (int i = 0; i < PRECISION_SAMPLES; i++) {
+
+            long lag = system.nanoTime() - clock.nanoTime();
+            maxLag = Math.max(maxLag, lag);
+            totalLag += lag;
+
+            long start = clock.nanoTime();
+            LockSupport.parkNanos(10_000);
+            if (clock.nanoTime() == start) {
+                zeroDurations++;
+            }
+        }
+
+        System.out.printf(
+                "%n[%s] mean lag: %.1f us, max lag: %.1f us, zero durations of ~10 us operations: %.1f%%%n",
+                clockType,
+                totalLag / (double) PRECISION_SAMPLES / 1000.,
+                maxLag / 1000.,
+                zeroDurations * 100. / PRECISION_SAMPLES);
+    }
+}
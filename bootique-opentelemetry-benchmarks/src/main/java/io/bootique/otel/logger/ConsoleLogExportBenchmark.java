@@ -0,0 +1,116 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.logs.TestLogRecordData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the console log exporter printing each record with its own logger call vs. printing the
+ * whole batch with a single logger call. Logging goes via slf4j-simple (that synchronizes and flushes on every call)
+ * to the null device, so that the benchmark measures the logging overhead and not the disk.
+ * <p>Run with: {@code java -jar target/benchmarks.jar ConsoleLogExportBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConsoleLogExportBenchmark {
+
+    static {
+        // must be set before SLF4J is initialized
+        System.setProperty(
+                "org.slf4j.simpleLogger.logFile",
+                System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+    }
+
+    @Param({"false", "true"})
+    public boolean singleWrite;
+
+    @Param({"512"})
+    public int batchSize;
+
+    private List<LogRecordData> batch;
+    private LoggerLogRecordExporter exporter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        SpanContext spanContext = SpanContext.create(
+                "0af7651916cd43dd8448eb211c80319c",
+                "b7ad6b7169203331",
+                TraceFlags.getSampled(),
+                TraceState.getDefault());
+
+        long start = 1_700_000_000_000_000_000L;
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(TestLogRecordData.builder()
+                    .setResource(Resource.empty())
+                    .setInstrumentationScopeInfo(InstrumentationScopeInfo.create("com.example.OrderService"))
+                    .setTimestamp(start + i * 1_000_123L, TimeUnit.NANOSECONDS)
+                    .setSpanContext(spanContext)
+                    .setSeverity(Severity.INFO)
+                    .setBodyValue(Value.of("Processed order " + i))
+                    .setAttributes(Attributes.builder().put("order.id", "o-" + i).build())
+                    .setTotalAttributeCount(1)
+                    .build());
+        }
+
+        exporter = new LoggerLogRecordExporter(singleWrite);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        exporter.shutdown();
+    }
+
+    @Benchmark
+    public CompletableResultCode export() {
+        return exporter.export(batch);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.logs.TestLogRecordData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Compares the allocation rate and speed of {@link LogRecordFormatter} with the original formatting code of
+ * {@link LoggerLogRecordExporter} (based on DateTimeFormatter and Attributes.toString()). Both produce the same text.
+ * Run with "-prof gc" and compare the "gc.alloc.rate.norm" (bytes/op) values.
+ * <p>Run with: {@code java -jar target/benchmarks.jar LogRecordFormatBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LogRecordFormatBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    private LogRecordData[] logs;
+    private StringBuilder baselineBuffer;
+    private LogRecordFormatter formatter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        SpanContext spanContext = SpanContext.create(
+                "0af7651916cd43dd8448eb211c80319c",
+                "b7ad6b7169203331",
+                TraceFlags.getSampled(),
+                TraceState.getDefault());
+
+        // records ~1 ms apart, so that consecutive records mostly share the same second
+        long start = 1_700_000_000_000_000_000L;
+        logs = new LogRecordData[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            logs[i] = TestLogRecordData.builder()
+                    .setResource(Resource.empty())
+                    .setInstrumentationScopeInfo(InstrumentationScopeInfo.create("com.example.OrderService"))
+                    .setTimestamp(start + i * 1_000_123L, NANOSECONDS)
+                    .setSpanContext(spanContext)
+                    .setSeverity(Severity.INFO)
+                    .setBodyValue(Value.of("Processed order " + i))
+                    .setAttributes(Attributes.builder()
+                            .put("order.id", "o-" + i)
+                            .put("order.items", i % 10L)
+                            .put("thread.name", "http-worker-3")
+                            .build())
+                    .setTotalAttributeCount(3)
+                    .build();
+        }
+
+        baselineBuffer = new StringBuilder(60);
+        formatter = new LogRecordFormatter();
+    }
+
+    @Benchmark
+    public String baseline() {
+        baselineBuffer.setLength(0);
+        baselineFormat(baselineBuffer, logs[next++ & (RECORDS - 1)]);
+        return baselineBuffer.toString();
+    }
+
+    @Benchmark
+    public String formatter() {
+        return formatter.format(logs[next++ & (RECORDS - 1)]).toString();
+    }
+
+    // the original LoggerLogRecordExporter.formatLog(..)
+    private static void baselineFormat(StringBuilder stringBuilder, LogRecordData log) {
+        InstrumentationScopeInfo instrumentationScopeInfo = log.getInstrumentationScopeInfo();
+        Value<?> body = log.getBodyValue();
+        stringBuilder
+                .append(
+                        DateTimeFormatter.ISO_DATE_TIME.format(
+                                Instant.ofEpochMilli(NANOSECONDS.toMillis(log.getTimestampEpochNanos()))
+                                        .atZone(ZoneOffset.UTC)))
+                .append(" ")
+                .append(log.getSeverity())
+                .append(" '")
+                .append(body == null ? "" : body.asString())
+                .append("' : ")
+                .append(log.getSpanContext().getTraceId())
+                .append(" ")
+                .append(log.getSpanContext().getSpanId())
+                .append(" [scopeInfo: ")
+                .append(instrumentationScopeInfo.getName())
+                .append(":")
+                .append(
+                        instrumentationScopeInfo.getVersion() == null
+                                ? ""
+                                : instrumentationScopeInfo.getVersion())
+                .append("] ")
+                .append(log.getAttributes());
+    }
+}
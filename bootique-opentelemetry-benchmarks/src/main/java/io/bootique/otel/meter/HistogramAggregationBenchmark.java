@@ -0,0 +1,242 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.View;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares "explicit_bucket_histogram" and "base2_exponential_bucket_histogram" aggregations. The "record" and
+ * "collect" benchmarks measure the recording and collection cost (run with "-prof gc" to see the allocation rate).
+ * Memory footprint (buckets per exported series) and accuracy (relative error of the percentiles estimated from the
+ * buckets vs. the exact percentiles of the recorded samples) are printed at the end of each trial.
+ * <p>Run with: {@code java -jar target/benchmarks.jar HistogramAggregationBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HistogramAggregationBenchmark {
+
+    private static final int SAMPLES = 1 << 16;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    @Param({HistogramAggregations.EXPLICIT_BUCKET_HISTOGRAM, HistogramAggregations.BASE2_EXPONENTIAL_BUCKET_HISTOGRAM})
+    public String aggregation;
+
+    @Param({"1", "64"})
+    public int series;
+
+    private double[] samples;
+    private Attributes[] attributes;
+    private InMemoryMetricReader reader;
+    private SdkMeterProvider meterProvider;
+    private DoubleHistogram histogram;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        // latencies in ms with a long tail, approximated by a log-normal distribution
+        Random random = new Random(42);
+        samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = Math.exp(2. + 1.2 * random.nextGaussian());
+        }
+
+        attributes = new Attributes[series];
+        for (int i = 0; i < series; i++) {
+            attributes[i] = Attributes.of(AttributeKey.stringKey("route"), "/route/" + i);
+        }
+
+        reader = InMemoryMetricReader.create();
+        meterProvider = createMeterProvider(reader);
+        histogram = meterProvider.get("benchmark").histogramBuilder("latency").setUnit("ms").build();
+        recordAllSamples(histogram);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        meterProvider.close();
+        reportAccuracy();
+    }
+
+    @Benchmark
+    public void record() {
+        int i = next++ & (SAMPLES - 1);
+        histogram.record(samples[i], attributes[i % series]);
+    }
+
+    @Benchmark
+    public Collection<MetricData> collect() {
+        return reader.collectAllMetrics();
+    }
+
+    private SdkMeterProvider createMeterProvider(InMemoryMetricReader reader) {
+        return SdkMeterProvider.builder()
+                .registerMetricReader(reader)
+                .registerView(
+                        InstrumentSelector.builder().setType(InstrumentType.HISTOGRAM).build(),
+                        View.builder().setAggregation(HistogramAggregations.create(aggregation, null, null)).build())
+                .build();
+    }
+
+    private void recordAllSamples(DoubleHistogram histogram) {
+        for (int i = 0; i < SAMPLES; i++) {
+            histogram.record(samples[i], attributes[i % series]);
+        }
+    }
+
+    private void reportAccuracy() {
+
+        // using a fresh provider to ensure each series contains each of its samples exactly once
+        InMemoryMetricReader reader = InMemoryMetricReader.create();
+        try (SdkMeterProvider meterProvider = createMeterProvider(reader)) {
+            recordAllSamples(meterProvider.get("benchmark").histogramBuilder("latency").setUnit("ms").build());
+            report(reader.collectAllMetrics());
+        }
+    }
+
+    private void report(Collection<MetricData> metrics) {
+
+        // checking the accuracy of the first series
+        double[] sorted = IntStream.range(0, SAMPLES).filter(i -> i % series == 0).mapToDouble(i -> samples[i]).toArray();
+        Arrays.sort(sorted);
+
+        for (MetricData md : metrics) {
+
+            List<Double> estimates;
+            int buckets;
+
+            switch (md.getType()) {
+                case HISTOGRAM -> {
+                    HistogramPointData p = md.getHistogramData().getPoints()
+                            .stream().filter(pd -> attributes[0].equals(pd.getAttributes())).findFirst().get();
+                    estimates = explicitPercentiles(p);
+                    buckets = p.getCounts().size();
+                }
+                case EXPONENTIAL_HISTOGRAM -> {
+                    ExponentialHistogramPointData p = md.getExponentialHistogramData().getPoints()
+                            .stream().filter(pd -> attributes[0].equals(pd.getAttributes())).findFirst().get();
+                    estimates = exponentialPercentiles(p);
+                    buckets = p.getPositiveBuckets().getBucketCounts().size();
+                }
+                default -> {
+                    continue;
+                }
+            }
+
+            StringBuilder out = new StringBuilder()
+                    .append("\n[").append(aggregation).append(", series=").append(series).append("] ")
+                    .append("buckets/series: ").append(buckets)
+                    .append(", total buckets: ").append(buckets * series);
+
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                double exact = sorted[(int) Math.ceil(PERCENTILES[i] * sorted.length) - 1];
+                double error = Math.abs(estimates.get(i) - exact) / exact;
+                out.append(String.format(", p%s error: %.2f%%", PERCENTILES[i] * 100, error * 100));
+            }
+
+            System.out.println(out);
+        }
+    }
+
+    private static List<Double> explicitPercentiles(HistogramPointData p) {
+
+        List<Double> boundaries = p.getBoundaries();
+        List<Long> counts = p.getCounts();
+        Double[] result = new Double[PERCENTILES.length];
+
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            double rank = PERCENTILES[i] * p.getCount();
+            long seen = 0;
+
+            for (int b = 0; b < counts.size(); b++) {
+                long c = counts.get(b);
+                if (seen + c >= rank) {
+                    double lower = b == 0 ? p.getMin() : boundaries.get(b - 1);
+                    double upper = b == boundaries.size() ? p.getMax() : boundaries.get(b);
+                    result[i] = lower + (upper - lower) * (rank - seen) / c;
+                    break;
+                }
+                seen += c;
+            }
+        }
+
+        return List.of(result);
+    }
+
+    private static List<Double> exponentialPercentiles(ExponentialHistogramPointData p) {
+
+        ExponentialHistogramBuckets buckets = p.getPositiveBuckets();
+        List<Long> counts = buckets.getBucketCounts();
+        double base = Math.pow(2, Math.pow(2, -buckets.getScale()));
+        Double[] result = new Double[PERCENTILES.length];
+
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            double rank = PERCENTILES[i] * p.getCount() - p.getZeroCount();
+            long seen = 0;
+
+            for (int b = 0; b < counts.size(); b++) {
+                long c = counts.get(b);
+                if (seen + c >= rank) {
+                    double lower = Math.pow(base, buckets.getOffset() + b);
+                    double upper = lower * base;
+                    result[i] = lower + (upper - lower) * (rank - seen) / c;
+                    break;
+                }
+                seen += c;
+            }
+        }
+
+        return List.of(result);
+    }
+}
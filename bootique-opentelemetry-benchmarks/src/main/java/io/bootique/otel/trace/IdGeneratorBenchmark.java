@@ -0,0 +1,95 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.trace;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the "random" (SDK) and "fast" id generators, standalone and as a part of a root span start. Intended to be
+ * run with different thread counts to check for contention, e.g.:
+ * <p>{@code java -jar target/benchmarks.jar IdGeneratorBenchmark -prof gc -t 1}
+ * <p>{@code java -jar target/benchmarks.jar IdGeneratorBenchmark -prof gc -t 16}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdGeneratorBenchmark {
+
+    @Param({"random", "fast"})
+    public String generatorType;
+
+    private IdGenerator generator;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        IdGeneratorFactory factory = switch (generatorType) {
+            case "random" -> new RandomIdGeneratorFactory();
+            case "fast" -> new FastIdGeneratorFactory();
+            default -> throw new IllegalArgumentException("Unknown generator: " + generatorType);
+        };
+
+        generator = factory.create();
+
+        // no processors, so only the span creation is measured
+        tracerProvider = SdkTracerProvider.builder().setIdGenerator(generator).build();
+        tracer = tracerProvider.get("benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Benchmark
+    public String spanId() {
+        return generator.generateSpanId();
+    }
+
+    @Benchmark
+    public String traceId() {
+        return generator.generateTraceId();
+    }
+
+    @Benchmark
+    public void span() {
+        tracer.spanBuilder("request").startSpan().end();
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.LoggerProvider;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.context.Context;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Logback appender that emits log events to the OpenTelemetry logs API. Until an {@link OpenTelemetry} instance is
+ * installed via {@link #install(OpenTelemetry)}, the events are kept in a bounded buffer, and are replayed on
+ * install. The per-event work is limited to copying the event fields to a log record builder. The OpenTelemetry
+ * loggers and the attribute keys are cached, and the MDC and the markers are only captured when configured.
+ *
+ * @since 4.0
+ */
+public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    static final AttributeKey<String> THREAD_NAME = AttributeKey.stringKey("thread.name");
+    static final AttributeKey<String> EXCEPTION_TYPE = AttributeKey.stringKey("exception.type");
+    static final AttributeKey<String> EXCEPTION_MESSAGE = AttributeKey.stringKey("exception.message");
+    static final AttributeKey<String> EXCEPTION_STACKTRACE = AttributeKey.stringKey("exception.stacktrace");
+    static final AttributeKey<List<String>> MARKERS = AttributeKey.stringArrayKey("logback.marker");
+
+    static final String CAPTURE_ALL_MDC_KEYS = "*";
+
+    // the logs of the OpenTelemetry SDK itself (e.g. export errors) are not sent back to the SDK to avoid feedback
+    // loops
+    private static final String OTEL_LOGGER_PREFIX = "io.opentelemetry.";
+
+    private final Map<String, Logger> loggers;
+    private final Map<String, AttributeKey<String>> attributeKeys;
+    private final AtomicInteger droppedEarlyEvents;
+
+    private volatile LoggerProvider loggerProvider;
+    private ArrayBlockingQueue<ILoggingEvent> earlyEvents;
+
+    private int earlyEventsBufferSize;
+    private boolean captureAllMdc;
+    private Set<String> captureMdcKeys;
+    private boolean captureMarkers;
+
+    public OpenTelemetryAppender() {
+        this.loggers = new ConcurrentHashMap<>();
+        this.attributeKeys = new ConcurrentHashMap<>();
+        this.droppedEarlyEvents = new AtomicInteger();
+        this.earlyEventsBufferSize = 1000;
+        this.captureMdcKeys = Set.of();
+
+        // recreated on start with the configured size. Created here, so that "stop" and "install" work on an appender
+        // that was never started
+        this.earlyEvents = new ArrayBlockingQueue<>(earlyEventsBufferSize);
+    }
+
+    /**
+     * Locates all the started OpenTelemetry appenders attached to the loggers of the context.
+     */
+    public static List<OpenTelemetryAppender> findAppenders(LoggerContext context) {
+
+        List<OpenTelemetryAppender> appenders = new ArrayList<>();
+        for (ch.qos.logback.classic.Logger logger : context.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders();
+            while (it.hasNext()) {
+                if (it.next() instanceof OpenTelemetryAppender a && a.isStarted() && !appenders.contains(a)) {
+                    appenders.add(a);
+                }
+            }
+        }
+
+        return appenders;
+    }
+
+    /**
+     * Sets the max number of events logged before the OpenTelemetry is installed to keep in memory. The events over
+     * this limit are dropped. The default is 1000.
+     */
+    public void setEarlyEventsBufferSize(int earlyEventsBufferSize) {
+        this.earlyEventsBufferSize = earlyEventsBufferSize;
+    }
+
+    /**
+     * Sets the names of the MDC keys to capture as log record attributes. "*" captures all MDC keys. By default,
+     * no MDC is captured.
+     */
+    public void setCaptureMdcKeys(Collection<String> captureMdcKeys) {
+        this.captureAllMdc = captureMdcKeys != null && captureMdcKeys.contains(CAPTURE_ALL_MDC_KEYS);
+        this.captureMdcKeys = captureMdcKeys != null && !captureAllMdc ? new HashSet<>(captureMdcKeys) : Set.of();
+    }
+
+    /**
+     * Sets whether to capture the event markers as the "logback.marker" attribute. By default, markers are not
+     * captured.
+     */
+    public void setCaptureMarkers(boolean captureMarkers) {
+        this.captureMarkers = captureMarkers;
+    }
+
+    /**
+     * Starts sending the events to the logs API of the provided OpenTelemetry, replaying the buffered early events.
+     */
+    public void install(OpenTelemetry openTelemetry) {
+        this.loggers.clear();
+        this.loggerProvider = openTelemetry.getLogsBridge();
+        emitEarlyEvents();
+
+        int dropped = droppedEarlyEvents.getAndSet(0);
+        if (dropped > 0) {
+            addWarn("Dropped " + dropped + " event(s) logged before OpenTelemetry was installed. "
+                    + "Consider increasing 'earlyEventsBufferSize'");
+        }
+    }
+
+    @Override
+    public void start() {
+        this.earlyEvents = new ArrayBlockingQueue<>(Math.max(1, earlyEventsBufferSize));
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        this.earlyEvents.clear();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+
+        if (event.getLoggerName().startsWith(OTEL_LOGGER_PREFIX)) {
+            return;
+        }
+
+        LoggerProvider loggerProvider = this.loggerProvider;
+        if (loggerProvider != null) {
+            emit(loggerProvider, event, null);
+            return;
+        }
+
+        // OpenTelemetry is not installed yet. Preserve the event state for a later replay. Not capturing the current
+        // context, as there can be no spans before OpenTelemetry is installed. Also, accessing the context here would
+        // initialize the context storage before OpenTelemetry had a chance to customize it
+        event.prepareForDeferredProcessing();
+        if (!earlyEvents.offer(event)) {
+            droppedEarlyEvents.incrementAndGet();
+        }
+
+        // if OpenTelemetry was installed while we were adding the event, it may have missed the event
+        if (this.loggerProvider != null) {
+            emitEarlyEvents();
+        }
+    }
+
+    private void emitEarlyEvents() {
+        ILoggingEvent e;
+        while ((e = earlyEvents.poll()) != null) {
+            emit(loggerProvider, e, Context.root());
+        }
+    }
+
+    private void emit(LoggerProvider loggerProvider, ILoggingEvent event, Context context) {
+
+        Level level = event.getLevel();
+        LogRecordBuilder builder = logger(loggerProvider, event.getLoggerName())
+                .logRecordBuilder()
+                .setTimestamp(event.getInstant())
+                .setSeverity(severity(level))
+                .setSeverityText(level.levelStr)
+                .setBody(event.getFormattedMessage())
+                .setAttribute(THREAD_NAME, event.getThreadName());
+
+        // if no context is set, the current context is used on emit
+        if (context != null) {
+            builder.setContext(context);
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            builder.setAttribute(EXCEPTION_TYPE, throwable.getClassName());
+            if (throwable.getMessage() != null) {
+                builder.setAttribute(EXCEPTION_MESSAGE, throwable.getMessage());
+            }
+            builder.setAttribute(EXCEPTION_STACKTRACE, ThrowableProxyUtil.asString(throwable));
+        }
+
+        // the key/value pairs are explicitly passed by the caller via the SLF4J fluent API, so they are always captured
+        List<KeyValuePair> kvPairs = event.getKeyValuePairs();
+        if (kvPairs != null) {
+            for (KeyValuePair kv : kvPairs) {
+                if (kv.value != null) {
+                    builder.setAttribute(attributeKey(kv.key), String.valueOf(kv.value));
+                }
+            }
+        }
+
+        if (captureAllMdc || !captureMdcKeys.isEmpty()) {
+            appendMdc(builder, event.getMDCPropertyMap());
+        }
+
+        if (captureMarkers) {
+            appendMarkers(builder, event.getMarkerList());
+        }
+
+        builder.emit();
+    }
+
+    private void appendMdc(LogRecordBuilder builder, Map<String, String> mdc) {
+        if (mdc == null || mdc.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<String, String> e : mdc.entrySet()) {
+            if (e.getValue() != null && (captureAllMdc || captureMdcKeys.contains(e.getKey()))) {
+                builder.setAttribute(attributeKey(e.getKey()), e.getValue());
+            }
+        }
+    }
+
+    private void appendMarkers(LogRecordBuilder builder, List<Marker> markers) {
+        if (markers == null || markers.isEmpty()) {
+            return;
+        }
+
+        List<String> names = new ArrayList<>(markers.size());
+        for (Marker m : markers) {
+            names.add(m.getName());
+        }
+
+        builder.setAttribute(MARKERS, names);
+    }
+
+    private Logger logger(LoggerProvider loggerProvider, String name) {
+        Logger logger = loggers.get(name);
+        return logger != null ? logger : loggers.computeIfAbsent(name, loggerProvider::get);
+    }
+
+    private AttributeKey<String> attributeKey(String name) {
+        AttributeKey<String> key = attributeKeys.get(name);
+        return key != null ? key : attributeKeys.computeIfAbsent(name, AttributeKey::stringKey);
+    }
+
+    private static Severity severity(Level level) {
+        return switch (level.levelInt) {
+            case Level.ERROR_INT -> Severity.ERROR;
+            case Level.WARN_INT -> Severity.WARN;
+            case Level.INFO_INT -> Severity.INFO;
+            case Level.DEBUG_INT -> Severity.DEBUG;
+            case Level.TRACE_INT -> Severity.TRACE;
+            default -> Severity.UNDEFINED_SEVERITY_NUMBER;
+        };
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logback;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.logback.appender.AppenderFactory;
+
+import java.util.List;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Appender that sends the logs to the OpenTelemetry logs API of the app")
+@JsonTypeName("opentelemetry")
+public class OpenTelemetryAppenderFactory extends AppenderFactory {
+
+    private List<String> captureMdcKeys;
+    private Boolean captureMarkers;
+    private Integer earlyEventsBufferSize;
+
+    @BQConfigProperty("""
+            Names of the MDC keys to capture as log record attributes. "*" captures all MDC keys. If not set, no MDC is
+            captured.""")
+    public OpenTelemetryAppenderFactory setCaptureMdcKeys(List<String> captureMdcKeys) {
+        this.captureMdcKeys = captureMdcKeys;
+        return this;
+    }
+
+    @BQConfigProperty("If true, event markers are captured as the 'logback.marker' attribute. The default is 'false'.")
+    public OpenTelemetryAppenderFactory setCaptureMarkers(Boolean captureMarkers) {
+        this.captureMarkers = captureMarkers;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of events logged on startup before OpenTelemetry is initialized to keep in memory. They are
+            sent to OpenTelemetry once it is initialized. The events over this limit are dropped. The default is
+            1000""")
+    public OpenTelemetryAppenderFactory setEarlyEventsBufferSize(Integer earlyEventsBufferSize) {
+        this.earlyEventsBufferSize = earlyEventsBufferSize;
+        return this;
+    }
+
+    @Override
+    public Appender<ILoggingEvent> createAppender(LoggerContext context, String defaultLogFormat) {
+
+        // the layout is ignored, as the message goes to the log record body as is. Also, not wrapping the appender
+        // as async: the emit is cheap, and the SDK batch processor is already async. Besides, emitting in the calling
+        // thread preserves the OpenTelemetry context of the call
+        OpenTelemetryAppender appender = new OpenTelemetryAppender();
+        appender.setName(getName());
+        appender.setContext(context);
+        appender.setCaptureMdcKeys(captureMdcKeys);
+        appender.setCaptureMarkers(captureMarkers != null && captureMarkers);
+
+        if (earlyEventsBufferSize != null) {
+            appender.setEarlyEventsBufferSize(earlyEventsBufferSize);
+        }
+
+        if (filters != null) {
+            filters.forEach(f -> appender.addFilter(f.createFilter()));
+        }
+
+        appender.start();
+        return appender;
+    }
+}
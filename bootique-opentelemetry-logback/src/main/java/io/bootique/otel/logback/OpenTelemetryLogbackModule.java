@@ -0,0 +1,85 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logback;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.jul.LevelChangePropagator;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import io.bootique.BQCoreModule;
+import io.bootique.BQModule;
+import io.bootique.BQRuntime;
+import io.bootique.ModuleCrate;
+import io.bootique.di.Binder;
+import io.opentelemetry.api.OpenTelemetry;
+
+import java.util.List;
+
+/**
+ * @since 4.0
+ */
+public class OpenTelemetryLogbackModule implements BQModule {
+
+    @Override
+    public ModuleCrate crate() {
+        return ModuleCrate.of(this)
+                .description("Sends Logback logs to OpenTelemetry via the \"opentelemetry\" appender.")
+                .build();
+    }
+
+    @Override
+    public void configure(Binder binder) {
+        BQCoreModule.extend(binder).addRuntimeListener(OpenTelemetryLogbackModule::onRuntimeCreated);
+    }
+
+    private static void onRuntimeCreated(BQRuntime runtime) {
+        LoggerContext context = runtime.getInstance(Logger.class).getLoggerContext();
+        installLevelPropagator(context);
+        installAppenders(runtime, context);
+    }
+
+    // keeps JUL levels (used by the OpenTelemetry SDK, gRPC, etc.) in sync with Logback levels, so that the JUL calls
+    // disabled in Logback are discarded by JUL itself instead of going through the SLF4J bridge. Unlike the
+    // SLF4J-only propagation done by the core module, this also covers the JUL loggers created later, as each Logback
+    // logger with an explicit level gets a matching JUL logger that the descendants inherit the level from
+    static void installLevelPropagator(LoggerContext context) {
+
+        for (LoggerContextListener l : context.getCopyOfListenerList()) {
+            if (l instanceof LevelChangePropagator) {
+                return;
+            }
+        }
+
+        LevelChangePropagator propagator = new LevelChangePropagator();
+        propagator.setContext(context);
+        propagator.start();
+        context.addListener(propagator);
+    }
+
+    private static void installAppenders(BQRuntime runtime, LoggerContext context) {
+
+        // OpenTelemetry is only initialized if there are "opentelemetry" appenders configured. Until then, the
+        // appenders buffer the events
+        List<OpenTelemetryAppender> appenders = OpenTelemetryAppender.findAppenders(context);
+        if (!appenders.isEmpty()) {
+            OpenTelemetry openTelemetry = runtime.getInstance(OpenTelemetry.class);
+            appenders.forEach(a -> a.install(openTelemetry));
+        }
+    }
+}
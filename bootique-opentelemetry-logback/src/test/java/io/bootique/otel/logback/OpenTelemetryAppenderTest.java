@@ -0,0 +1,184 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logback;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import io.opentelemetry.sdk.testing.exporter.InMemoryLogRecordExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.MarkerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenTelemetryAppenderTest {
+
+    private LoggerContext context;
+    private InMemoryLogRecordExporter exporter;
+    private OpenTelemetrySdk openTelemetry;
+
+    @BeforeEach
+    void before() {
+        context = new LoggerContext();
+
+        // share the MDC with the SLF4J API used by the tests
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        exporter = InMemoryLogRecordExporter.create();
+        openTelemetry = OpenTelemetrySdk.builder()
+                .setLoggerProvider(SdkLoggerProvider.builder()
+                        .addLogRecordProcessor(SimpleLogRecordProcessor.create(exporter))
+                        .build())
+                .build();
+    }
+
+    @AfterEach
+    void after() {
+        openTelemetry.close();
+        context.stop();
+        MDC.clear();
+    }
+
+    @Test
+    public void append() {
+        OpenTelemetryAppender appender = startAppender(1000);
+        appender.install(openTelemetry);
+
+        Logger logger = context.getLogger("com.foo.Bar");
+        logger.info("m1 {}", 5);
+        logger.error("m2", new IllegalStateException("bad state"));
+
+        List<LogRecordData> logs = exporter.getFinishedLogRecordItems();
+        assertEquals(2, logs.size());
+
+        assertEquals("com.foo.Bar", logs.get(0).getInstrumentationScopeInfo().getName());
+        assertEquals("m1 5", logs.get(0).getBodyValue().asString());
+        assertEquals(Severity.INFO, logs.get(0).getSeverity());
+        assertEquals("INFO", logs.get(0).getSeverityText());
+        assertEquals(Thread.currentThread().getName(), logs.get(0).getAttributes().get(OpenTelemetryAppender.THREAD_NAME));
+        assertNull(logs.get(0).getAttributes().get(OpenTelemetryAppender.EXCEPTION_TYPE));
+
+        assertEquals(Severity.ERROR, logs.get(1).getSeverity());
+        assertEquals("java.lang.IllegalStateException", logs.get(1).getAttributes().get(OpenTelemetryAppender.EXCEPTION_TYPE));
+        assertEquals("bad state", logs.get(1).getAttributes().get(OpenTelemetryAppender.EXCEPTION_MESSAGE));
+        assertTrue(logs.get(1).getAttributes().get(OpenTelemetryAppender.EXCEPTION_STACKTRACE).contains("OpenTelemetryAppenderTest"));
+    }
+
+    @Test
+    public void stop_NotStarted() {
+        OpenTelemetryAppender appender = new OpenTelemetryAppender();
+        appender.setContext(context);
+        appender.stop();
+        assertFalse(appender.isStarted());
+
+        // must be usable after a premature stop
+        appender.install(openTelemetry);
+    }
+
+    @Test
+    public void append_EarlyEvents() {
+        OpenTelemetryAppender appender = startAppender(2);
+
+        Logger logger = context.getLogger("com.foo.Bar");
+        logger.info("e1");
+        logger.info("e2");
+        logger.info("e3");
+        assertEquals(0, exporter.getFinishedLogRecordItems().size());
+
+        appender.install(openTelemetry);
+        logger.info("l1");
+
+        assertEquals(
+                List.of("e1", "e2", "l1"),
+                exporter.getFinishedLogRecordItems().stream().map(l -> l.getBodyValue().asString()).toList());
+    }
+
+    @Test
+    public void append_SkipOtelLoggers() {
+        OpenTelemetryAppender appender = startAppender(1000);
+        appender.install(openTelemetry);
+
+        context.getLogger("io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor").warn("m1");
+        context.getLogger("com.foo.Bar").warn("m2");
+
+        assertEquals(
+                List.of("m2"),
+                exporter.getFinishedLogRecordItems().stream().map(l -> l.getBodyValue().asString()).toList());
+    }
+
+    @Test
+    public void append_MdcAndMarkers() {
+        OpenTelemetryAppender appender = new OpenTelemetryAppender();
+        appender.setCaptureMdcKeys(List.of("k1"));
+        appender.setCaptureMarkers(true);
+        startAppender(appender);
+        appender.install(openTelemetry);
+
+        MDC.put("k1", "v1");
+        MDC.put("k2", "v2");
+        context.getLogger("com.foo.Bar").info(MarkerFactory.getMarker("M1"), "m1");
+
+        LogRecordData log = exporter.getFinishedLogRecordItems().get(0);
+        assertEquals("v1", log.getAttributes().get(AttributeKey.stringKey("k1")));
+        assertNull(log.getAttributes().get(AttributeKey.stringKey("k2")));
+        assertEquals(List.of("M1"), log.getAttributes().get(OpenTelemetryAppender.MARKERS));
+    }
+
+    @Test
+    public void append_NoMdcAndMarkers() {
+        OpenTelemetryAppender appender = startAppender(1000);
+        appender.install(openTelemetry);
+
+        MDC.put("k1", "v1");
+        context.getLogger("com.foo.Bar").info(MarkerFactory.getMarker("M1"), "m1");
+
+        LogRecordData log = exporter.getFinishedLogRecordItems().get(0);
+        assertNull(log.getAttributes().get(AttributeKey.stringKey("k1")));
+        assertNull(log.getAttributes().get(OpenTelemetryAppender.MARKERS));
+    }
+
+    @Test
+    public void findAppenders() {
+        OpenTelemetryAppender appender = startAppender(1000);
+        context.getLogger("com.foo").addAppender(appender);
+        assertEquals(List.of(appender), OpenTelemetryAppender.findAppenders(context));
+    }
+
+    private OpenTelemetryAppender startAppender(int bufferSize) {
+        OpenTelemetryAppender appender = new OpenTelemetryAppender();
+        appender.setEarlyEventsBufferSize(bufferSize);
+        return startAppender(appender);
+    }
+
+    private OpenTelemetryAppender startAppender(OpenTelemetryAppender appender) {
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        return appender;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenTelemetryLogbackModuleTest {
+
+    @Test
+    public void installLevelPropagator() {
+        LoggerContext context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        context.getLogger("io.bootique.otel.logback.l1").setLevel(Level.DEBUG);
+
+        try {
+            OpenTelemetryLogbackModule.installLevelPropagator(context);
+
+            // the JUL loggers created after the install inherit the Logback levels
+            assertTrue(julLogger("io.bootique.otel.logback.l1.Child").isLoggable(java.util.logging.Level.FINE));
+            assertFalse(julLogger("io.bootique.otel.logback.l2.Child").isLoggable(java.util.logging.Level.FINE));
+
+            // the Logback level changes are propagated as well
+            context.getLogger("io.bootique.otel.logback.l2").setLevel(Level.DEBUG);
+            assertTrue(julLogger("io.bootique.otel.logback.l2.Child").isLoggable(java.util.logging.Level.FINE));
+        } finally {
+            context.stop();
+        }
+    }
+
+    private static java.util.logging.Logger julLogger(String name) {
+        return java.util.logging.Logger.getLogger(name);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.logs.LoggerProvider;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.propagation.ContextPropagators;
+
+/**
+ * An {@link OpenTelemetry} made of independently created providers, some of which may be no-op. The providers are
+ * shut down by the factories that created them.
+ *
+ * @since 4.0
+ */
+class CompositeOpenTelemetry implements OpenTelemetry {
+
+    private final TracerProvider tracerProvider;
+    private final MeterProvider meterProvider;
+    private final LoggerProvider loggerProvider;
+
+    CompositeOpenTelemetry(TracerProvider tracerProvider, MeterProvider meterProvider, LoggerProvider loggerProvider) {
+        this.tracerProvider = tracerProvider;
+        this.meterProvider = meterProvider;
+        this.loggerProvider = loggerProvider;
+    }
+
+    @Override
+    public TracerProvider getTracerProvider() {
+        return tracerProvider;
+    }
+
+    @Override
+    public MeterProvider getMeterProvider() {
+        return meterProvider;
+    }
+
+    @Override
+    public LoggerProvider getLogsBridge() {
+        return loggerProvider;
+    }
+
+    @Override
+    public ContextPropagators getPropagators() {
+        // same as the OpenTelemetrySdk default
+        return ContextPropagators.noop();
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeOpenTelemetry{tracerProvider=" + tracerProvider
+                + ", meterProvider=" + meterProvider
+                + ", loggerProvider=" + loggerProvider + '}';
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import org.slf4j.LoggerFactory;
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+ * Routes JUL (used by the OpenTelemetry SDK, gRPC, etc.) to SLF4J, and sets the JUL logger levels to match the
+ * effective SLF4J levels. So the JUL calls disabled in SLF4J are discarded by JUL itself, before a LogRecord is
+ * created and passed through the bridge. Similar to the Logback "LevelChangePropagator", but relies only on the SLF4J
+ * API, so the levels are propagated once and for the JUL loggers that exist at that point. The loggers created later
+ * inherit the levels of their JUL parents, which may be higher than their own SLF4J levels. With Logback, the
+ * "bootique-opentelemetry-logback" module closes this gap by installing "LevelChangePropagator", which creates a JUL
+ * logger for each Logback logger with an explicit level and keeps it in sync.
+ *
+ * @since 4.0
+ */
+class JulBridge {
+
+    // JUL only keeps weak references to the loggers, so the loggers with the levels we set must be retained, or
+    // their levels would be lost on GC
+    private static final Set<Logger> CONFIGURED_LOGGERS = ConcurrentHashMap.newKeySet();
+
+    static void install() {
+
+        // don't reset JUL if the bridge was already installed (e.g. by the Logback module)
+        if (!SLF4JBridgeHandler.isInstalled()) {
+            LogManager.getLogManager().reset();
+            SLF4JBridgeHandler.install();
+        }
+
+        propagateLevels();
+    }
+
+    static void propagateLevels() {
+
+        LogManager logManager = LogManager.getLogManager();
+        logManager.getLogger("").setLevel(julLevel(LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)));
+
+        Enumeration<String> names = logManager.getLoggerNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            Logger logger = name.isEmpty() ? null : logManager.getLogger(name);
+            if (logger != null) {
+                logger.setLevel(julLevel(LoggerFactory.getLogger(name)));
+                CONFIGURED_LOGGERS.add(logger);
+            }
+        }
+    }
+
+    /**
+     * Returns the lowest JUL level that SLF4JBridgeHandler maps to a level enabled in the SLF4J logger.
+     */
+    static Level julLevel(org.slf4j.Logger logger) {
+        if (logger.isTraceEnabled()) {
+            return Level.ALL;
+        } else if (logger.isDebugEnabled()) {
+            return Level.FINER;
+        } else if (logger.isInfoEnabled()) {
+            return Level.CONFIG;
+        } else if (logger.isWarnEnabled()) {
+            return Level.WARNING;
+        } else if (logger.isErrorEnabled()) {
+            return Level.SEVERE;
+        } else {
+            return Level.OFF;
+        }
+    }
+}
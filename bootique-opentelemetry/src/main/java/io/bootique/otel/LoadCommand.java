@@ -0,0 +1,416 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.bootique.cli.Cli;
+import io.bootique.command.CommandOutcome;
+import io.bootique.command.CommandWithMetadata;
+import io.bootique.config.ConfigurationFactory;
+import io.bootique.log.BootLogger;
+import io.bootique.meta.application.CommandMetadata;
+import io.bootique.meta.application.OptionMetadata;
+import io.bootique.value.Duration;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricDataType;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A command that generates synthetic spans, logs and metrics at the specified rates, and reports the achieved
+ * throughput, the number of records dropped by the processors, the export latency percentiles, and the CPU time and
+ * memory allocated per generated item. Used to size the batch and queue settings for a given host. The load goes
+ * through an OpenTelemetry instance created from the app "opentelemetry" configuration (i.e., with the same providers,
+ * processors and exporters as the app would have), except that the internal telemetry of the tracer and logger
+ * providers is collected locally for the report.
+ *
+ * @since 4.0
+ */
+public class LoadCommand extends CommandWithMetadata {
+
+    static final String NAME = "otel-load";
+    static final String SPANS_OPTION = "otel-load-spans";
+    static final String LOGS_OPTION = "otel-load-logs";
+    static final String METRICS_OPTION = "otel-load-metrics";
+    static final String THREADS_OPTION = "otel-load-threads";
+
+    private static final String DEFAULT_DURATION = "10s";
+    private static final int DEFAULT_RATE = 1000;
+    private static final long FLUSH_TIMEOUT_MS = 30_000;
+    private static final long IDLE_PARK_NS = 100_000;
+
+    private static final int SERIES = 16;
+    private static final AttributeKey<String> ROUTE = AttributeKey.stringKey("route");
+    private static final AttributeKey<Long> ITEM = AttributeKey.longKey("item");
+
+    // processor drop counters. SDK "legacy" and "latest" internal telemetry, and our priority lanes
+    private static final AttributeKey<Boolean> LEGACY_DROPPED = AttributeKey.booleanKey("dropped");
+    private static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+    private final Provider<ConfigurationFactory> configFactory;
+    private final Provider<Resource> resource;
+    private final Provider<BootLogger> logger;
+
+    @Inject
+    public LoadCommand(Provider<ConfigurationFactory> configFactory, Provider<Resource> resource, Provider<BootLogger> logger) {
+        super(CommandMetadata.builder(LoadCommand.class)
+                .name(NAME)
+                .description("""
+                        Generates synthetic spans, logs and metrics using the app OpenTelemetry configuration, and
+                        reports throughput, drops, export latency and per-item cost. The value is the test duration.""")
+                .valueOptionalWithDefault("duration", DEFAULT_DURATION)
+                .addOption(rateOption(SPANS_OPTION, "spans"))
+                .addOption(rateOption(LOGS_OPTION, "log records"))
+                .addOption(rateOption(METRICS_OPTION, "metric measurements"))
+                .addOption(OptionMetadata.builder(THREADS_OPTION)
+                        .description("Number of threads generating the load. The default is 1.")
+                        .valueRequired("threads")
+                        .build())
+                .build());
+
+        this.configFactory = configFactory;
+        this.resource = resource;
+        this.logger = logger;
+    }
+
+    private static OptionMetadata rateOption(String name, String items) {
+        return OptionMetadata.builder(name)
+                .description("Number of " + items + " generated per second. The default is " + DEFAULT_RATE)
+                .valueRequired("per_sec")
+                .build();
+    }
+
+    @Override
+    public CommandOutcome run(Cli cli) {
+
+        String duration = cli.optionString(NAME);
+        long durationNs = new Duration(duration != null ? duration : DEFAULT_DURATION).getDuration().toNanos();
+        int threads = cli.hasOption(THREADS_OPTION) ? Integer.parseInt(cli.optionString(THREADS_OPTION)) : 1;
+
+        double[] rates = {
+                rate(cli, SPANS_OPTION),
+                rate(cli, LOGS_OPTION),
+                rate(cli, METRICS_OPTION)
+        };
+
+        CollectingMetricReader reader = new CollectingMetricReader();
+        try (SdkMeterProvider telemetryMeterProvider = SdkMeterProvider.builder().registerMetricReader(reader).build()) {
+
+            OpenTelemetry otel = configFactory
+                    .get()
+                    .config(OpenTelemetryFactory.class, OpenTelemetryModule.CONFIG_PREFIX)
+                    .create(resource.get(), telemetryMeterProvider);
+
+            Generator[] generators = new Generator[threads];
+            for (int i = 0; i < threads; i++) {
+                generators[i] = new Generator(otel, durationNs, rates[0] / threads, rates[1] / threads, rates[2] / threads);
+            }
+
+            long t0 = System.nanoTime();
+            Thread[] workers = new Thread[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Thread(generators[i], "otel-load-" + i);
+                workers[i].start();
+            }
+
+            for (Thread w : workers) {
+                w.join();
+            }
+
+            long generatedNs = System.nanoTime() - t0;
+            long flushNs = flush(otel);
+
+            report(generators, rates, generatedNs, flushNs, reader.collect());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CommandOutcome.failed(1, "Interrupted");
+        }
+
+        return CommandOutcome.succeeded();
+    }
+
+    private static double rate(Cli cli, String option) {
+        return cli.hasOption(option) ? Double.parseDouble(cli.optionString(option)) : DEFAULT_RATE;
+    }
+
+    private static long flush(OpenTelemetry otel) {
+
+        List<CompletableResultCode> results = new ArrayList<>(3);
+
+        if (otel instanceof OpenTelemetrySdk sdk) {
+            results.add(sdk.getSdkTracerProvider().forceFlush());
+            results.add(sdk.getSdkLoggerProvider().forceFlush());
+            results.add(sdk.getSdkMeterProvider().forceFlush());
+        } else {
+            if (otel.getTracerProvider() instanceof SdkTracerProvider tp) {
+                results.add(tp.forceFlush());
+            }
+            if (otel.getLogsBridge() instanceof SdkLoggerProvider lp) {
+                results.add(lp.forceFlush());
+            }
+            if (otel.getMeterProvider() instanceof SdkMeterProvider mp) {
+                results.add(mp.forceFlush());
+            }
+        }
+
+        long t0 = System.nanoTime();
+        CompletableResultCode.ofAll(results).join(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        return System.nanoTime() - t0;
+    }
+
+    private void report(
+            Generator[] generators,
+            double[] rates,
+            long generatedNs,
+            long flushNs,
+            Collection<MetricData> telemetry) {
+
+        long[] counts = new long[3];
+        long cpuNs = 0;
+        long allocated = 0;
+        for (Generator g : generators) {
+            for (int i = 0; i < 3; i++) {
+                counts[i] += g.counts[i];
+            }
+            cpuNs += g.cpuNs;
+
+            // -1 if allocation tracking is not supported by the JVM
+            allocated = allocated < 0 || g.allocatedBytes < 0 ? -1 : allocated + g.allocatedBytes;
+        }
+
+        double seconds = generatedNs / 1_000_000_000.;
+        long items = counts[0] + counts[1] + counts[2];
+
+        BootLogger out = logger.get();
+        out.stdout(String.format("Generated for %.1f s with %s thread(s). Flushed in %s ms.",
+                seconds,
+                generators.length,
+                TimeUnit.NANOSECONDS.toMillis(flushNs)));
+
+        out.stdout(String.format("spans:   %.0f/s requested, %.1f/s achieved, %s dropped, export latency %s",
+                rates[0],
+                counts[0] / seconds,
+                dropped(telemetry, "processedSpans", "otel.sdk.processor.span.processed", "span.lane.dropped"),
+                exportLatency(telemetry, "span.export.duration")));
+
+        out.stdout(String.format("logs:    %.0f/s requested, %.1f/s achieved, %s dropped, export latency %s",
+                rates[1],
+                counts[1] / seconds,
+                dropped(telemetry, "processedLogs", "otel.sdk.processor.log.processed", "log.lane.dropped"),
+                exportLatency(telemetry, "log.export.duration")));
+
+        out.stdout(String.format("metrics: %.0f/s requested, %.1f/s achieved",
+                rates[2],
+                counts[2] / seconds));
+
+        out.stdout(items > 0
+                ? String.format("per item: %s ns CPU, %s bytes allocated",
+                        cpuNs / items,
+                        allocated >= 0 ? String.valueOf(allocated / items) : "n/a")
+                : "per item: n/a");
+    }
+
+    private static long dropped(Collection<MetricData> telemetry, String legacyName, String latestName, String laneName) {
+
+        long dropped = 0;
+        for (MetricData md : telemetry) {
+
+            if (md.getType() != MetricDataType.LONG_SUM) {
+                continue;
+            }
+
+            for (LongPointData p : md.getLongSumData().getPoints()) {
+                Attributes a = p.getAttributes();
+                if ((md.getName().equals(legacyName) && Boolean.TRUE.equals(a.get(LEGACY_DROPPED)))
+                        || (md.getName().equals(latestName) && a.get(ERROR_TYPE) != null)
+                        || md.getName().equals(laneName)) {
+                    dropped += p.getValue();
+                }
+            }
+        }
+
+        return dropped;
+    }
+
+    private static String exportLatency(Collection<MetricData> telemetry, String name) {
+
+        // merging the "success" and "failure" points, as they have the same boundaries
+        List<Double> boundaries = null;
+        long[] counts = null;
+        long count = 0;
+        double max = 0;
+
+        for (MetricData md : telemetry) {
+            if (md.getType() != MetricDataType.HISTOGRAM || !md.getName().equals(name)) {
+                continue;
+            }
+
+            for (HistogramPointData p : md.getHistogramData().getPoints()) {
+                if (counts == null) {
+                    boundaries = p.getBoundaries();
+                    counts = new long[p.getCounts().size()];
+                }
+
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += p.getCounts().get(i);
+                }
+
+                count += p.getCount();
+                max = Math.max(max, p.getMax());
+            }
+        }
+
+        if (count == 0) {
+            return "n/a";
+        }
+
+        return String.format("p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms (%s exports)",
+                percentile(boundaries, counts, count, max, 0.5),
+                percentile(boundaries, counts, count, max, 0.9),
+                percentile(boundaries, counts, count, max, 0.99),
+                max,
+                count);
+    }
+
+    // a linear interpolation within the bucket containing the percentile
+    private static double percentile(List<Double> boundaries, long[] counts, long count, double max, double percentile) {
+
+        double rank = percentile * count;
+        long seen = 0;
+
+        for (int b = 0; b < counts.length; b++) {
+            long c = counts[b];
+            if (c > 0 && seen + c >= rank) {
+                double lower = b == 0 ? 0 : boundaries.get(b - 1);
+                double upper = b == boundaries.size() ? max : Math.min(boundaries.get(b), max);
+                return lower + (upper - lower) * (rank - seen) / c;
+            }
+            seen += c;
+        }
+
+        return max;
+    }
+
+    private static class Generator implements Runnable {
+
+        final Tracer tracer;
+        final Logger logger;
+        final LongCounter counter;
+        final long durationNs;
+        final double[] ratesPerNs;
+        final long[] counts;
+        final Attributes[] attributes;
+
+        long cpuNs;
+        long allocatedBytes;
+
+        Generator(OpenTelemetry otel, long durationNs, double spansPerSec, double logsPerSec, double metricsPerSec) {
+            this.tracer = otel.getTracer(NAME);
+            this.logger = otel.getLogsBridge().get(NAME);
+            this.counter = otel.getMeter(NAME).counterBuilder("load.items").build();
+            this.durationNs = durationNs;
+            this.ratesPerNs = new double[]{spansPerSec / 1e9, logsPerSec / 1e9, metricsPerSec / 1e9};
+            this.counts = new long[3];
+
+            this.attributes = new Attributes[SERIES];
+            for (int i = 0; i < SERIES; i++) {
+                attributes[i] = Attributes.of(ROUTE, "/route/" + i);
+            }
+        }
+
+        @Override
+        public void run() {
+
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            long cpu0 = threadBean.getCurrentThreadCpuTime();
+            long allocated0 = allocatedBytes();
+
+            long t0 = System.nanoTime();
+            long elapsed;
+            while ((elapsed = System.nanoTime() - t0) < durationNs) {
+
+                boolean generated = false;
+
+                // generating all the items that are due by now, so that the rate is kept even if the thread falls behind
+                for (int s = 0; s < 3; s++) {
+                    long due = (long) (elapsed * ratesPerNs[s]);
+                    while (counts[s] < due) {
+                        generate(s, counts[s]++);
+                        generated = true;
+                    }
+                }
+
+                if (!generated) {
+                    LockSupport.parkNanos(IDLE_PARK_NS);
+                }
+            }
+
+            cpuNs = threadBean.getCurrentThreadCpuTime() - cpu0;
+            allocatedBytes = allocated0 >= 0 ? allocatedBytes() - allocated0 : -1;
+        }
+
+        private void generate(int signal, long i) {
+            Attributes a = attributes[(int) (i % SERIES)];
+            switch (signal) {
+                case 0 -> {
+                    Span span = tracer.spanBuilder("load").setAllAttributes(a).setAttribute(ITEM, i).startSpan();
+                    span.addEvent("load.event");
+                    span.end();
+                }
+                case 1 -> logger.logRecordBuilder()
+                        .setSeverity(Severity.INFO)
+                        .setBody("Load record")
+                        .setAllAttributes(a)
+                        .setAttribute(ITEM, i)
+                        .emit();
+                default -> counter.add(1, a);
+            }
+        }
+
+        private static long allocatedBytes() {
+            return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean b
+                    && b.isThreadAllocatedMemoryEnabled()
+                    ? b.getCurrentThreadAllocatedBytes()
+                    : -1;
+        }
+    }
+}
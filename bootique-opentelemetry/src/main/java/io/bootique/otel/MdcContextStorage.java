@@ -0,0 +1,108 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextStorage;
+import io.opentelemetry.context.Scope;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link ContextStorage} wrapper that puts the trace and span ids of the current span into the SLF4J MDC, so that
+ * they can be included in the log output. The MDC is only written to when the ids of the current span differ from
+ * the ones already in the MDC, and the id strings are taken from the {@link SpanContext} as is.
+ *
+ * @since 4.0
+ */
+class MdcContextStorage implements ContextStorage {
+
+    static final String TRACE_ID = "trace_id";
+    static final String SPAN_ID = "span_id";
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+
+    private final ContextStorage delegate;
+    private final MDCAdapter mdc;
+
+    MdcContextStorage(ContextStorage delegate, MDCAdapter mdc) {
+        this.delegate = delegate;
+        this.mdc = mdc;
+    }
+
+    /**
+     * Registers the wrapper with the OpenTelemetry context storage. Must be called before the context is used for
+     * the first time, otherwise it has no effect.
+     */
+    static void install() {
+        if (INSTALLED.compareAndSet(false, true)) {
+            ContextStorage.addWrapper(s -> new MdcContextStorage(s, MDC.getMDCAdapter()));
+        }
+    }
+
+    @Override
+    public Scope attach(Context toAttach) {
+        Scope scope = delegate.attach(toAttach);
+        updateMdc(Span.fromContext(toAttach).getSpanContext());
+
+        return () -> {
+            scope.close();
+            updateMdc(Span.fromContext(delegate.current()).getSpanContext());
+        };
+    }
+
+    @Override
+    public Context current() {
+        return delegate.current();
+    }
+
+    @Override
+    public Context root() {
+        return delegate.root();
+    }
+
+    // comparing with the MDC itself instead of remembering the last written span, as the app may have cleared the MDC
+    // (e.g., via "MDC.clear()" at the end of a request) since then
+    private void updateMdc(SpanContext spanContext) {
+
+        if (spanContext.isValid()) {
+            update(TRACE_ID, spanContext.getTraceId());
+            update(SPAN_ID, spanContext.getSpanId());
+        } else {
+            update(TRACE_ID, null);
+            update(SPAN_ID, null);
+        }
+    }
+
+    private void update(String key, String value) {
+
+        String inMdc = mdc.get(key);
+        if (value == null) {
+            if (inMdc != null) {
+                mdc.remove(key);
+            }
+        } else if (!value.equals(inMdc)) {
+            mdc.put(key, value);
+        }
+    }
+}
@@ -21,19 +21,25 @@ package io.bootique.otel;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.bootique.annotation.BQConfig;
 import io.bootique.annotation.BQConfigProperty;
+import io.bootique.otel.clock.ClockFactory;
 import io.bootique.otel.logger.SdkLoggerProviderFactory;
 import io.bootique.otel.meter.SdkMeterProviderFactory;
+import io.bootique.otel.resource.ResourceDetectionFactory;
 import io.bootique.otel.trace.SdkTracerProviderFactory;
 import io.bootique.shutdown.ShutdownManager;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.LoggerProvider;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.TracerProvider;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
-import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.resources.Resource;
-import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @since 4.0
@@ -45,9 +51,14 @@ import jakarta.inject.Inject;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class OpenTelemetryFactory {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenTelemetryFactory.class);
+
     private final ShutdownManager shutdownManager;
 
     private String serviceName;
+    private Boolean mdcTraceContext;
+    private ResourceDetectionFactory resource;
+    private ClockFactory clock;
     private SdkLoggerProviderFactory loggerProvider;
     private SdkMeterProviderFactory meterProvider;
     private SdkTracerProviderFactory tracerProvider;
@@ -63,6 +74,30 @@ public class OpenTelemetryFactory {
         return this;
     }
 
+    @BQConfigProperty("""
+            If true, the ids of the current span are stored in the SLF4J MDC under "trace_id" and "span_id" keys, so
+            that they can be included in the app log output. The default is 'false'.""")
+    public OpenTelemetryFactory setMdcTraceContext(Boolean mdcTraceContext) {
+        this.mdcTraceContext = mdcTraceContext;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Optional detection of the resource attributes (host, OS, process, container, etc.) added to all the
+            telemetry produced by the app.""")
+    public OpenTelemetryFactory setResource(ResourceDetectionFactory resource) {
+        this.resource = resource;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            A clock shared by the tracer, meter and logger providers to timestamp the telemetry. The default "system"
+            clock reads the system time on every call. The "cached" clock is cheaper, but less precise.""")
+    public OpenTelemetryFactory setClock(ClockFactory clock) {
+        this.clock = clock;
+        return this;
+    }
+
     @BQConfigProperty
     public OpenTelemetryFactory setLoggerProvider(SdkLoggerProviderFactory loggerProvider) {
         this.loggerProvider = loggerProvider;
@@ -84,20 +119,80 @@ public class OpenTelemetryFactory {
     public Resource createResource(String defaultServiceName) {
         String name = serviceName != null ? serviceName : defaultServiceName;
         AttributeKey<String> nameKey = AttributeKey.stringKey(OpenTelemetryVar.OTEL_SERVICE_NAME.otelProperty);
-        return Resource.getDefault().merge(Resource.create(Attributes.of(nameKey, name)));
+
+        Resource detected = resource != null ? resource.detect() : Resource.empty();
+        return Resource.getDefault().merge(detected).merge(Resource.create(Attributes.of(nameKey, name)));
     }
 
+    /**
+     * Creates OpenTelemetry for the configured providers. If all three signals have exporters, the result is an
+     * {@link OpenTelemetrySdk}. If any signal has only "none" exporters, it gets a no-op provider, and the result is a
+     * plain {@link OpenTelemetry} instead, so the callers should not rely on the SDK type. Also note that with no-op
+     * metrics, the telemetry of the tracer and logger providers themselves (dropped records, export durations, etc.)
+     * is not collected.
+     */
     public OpenTelemetry create(Resource resource) {
-        SdkMeterProvider meterProvider = meterProviderOrDefault().create(resource);
-        SdkTracerProvider tracerProvider = tracerProviderOrDefault().create(resource, meterProvider);
-        SdkLoggerProvider loggerProvider = loggerProviderOrDefault().create(resource, meterProvider);
-
-        return OpenTelemetrySdk
-                .builder()
-                .setTracerProvider(tracerProvider)
-                .setMeterProvider(meterProvider)
-                .setLoggerProvider(loggerProvider)
-                .build();
+        return create(resource, null);
+    }
+
+    /**
+     * Creates OpenTelemetry, optionally sending the telemetry of the tracer and logger providers themselves (e.g.,
+     * dropped records, export durations) to a separate meter provider instead of the application meter provider.
+     */
+    OpenTelemetry create(Resource resource, MeterProvider telemetryMeterProvider) {
+
+        // must be installed before the context is used for the first time
+        if (mdcTraceContext != null && mdcTraceContext) {
+            MdcContextStorage.install();
+        }
+
+        SdkMeterProviderFactory meterProviderFactory = meterProviderOrDefault();
+        SdkTracerProviderFactory tracerProviderFactory = tracerProviderOrDefault();
+        SdkLoggerProviderFactory loggerProviderFactory = loggerProviderOrDefault();
+
+        // the separately collected telemetry (of "otel-load") always includes the export durations
+        boolean recordExportDuration = telemetryMeterProvider != null;
+
+        // not creating the clock if all providers are no-op, as the "cached" clock starts a thread
+        boolean noop = meterProviderFactory.isNoop() && tracerProviderFactory.isNoop() && loggerProviderFactory.isNoop();
+        Clock clock = noop ? null : createClock();
+
+        if (!meterProviderFactory.isNoop() && !tracerProviderFactory.isNoop() && !loggerProviderFactory.isNoop()) {
+            SdkMeterProvider meterProvider = meterProviderFactory.create(resource, clock);
+            MeterProvider telemetry = telemetryMeterProvider != null ? telemetryMeterProvider : meterProvider;
+            return OpenTelemetrySdk
+                    .builder()
+                    .setTracerProvider(tracerProviderFactory.create(resource, telemetry, clock, recordExportDuration))
+                    .setMeterProvider(meterProvider)
+                    .setLoggerProvider(loggerProviderFactory.create(resource, telemetry, clock, recordExportDuration))
+                    .build();
+        }
+
+        // For the signals with only "none" exporters, use no-op providers, so that the disabled signals have no
+        // runtime cost. OpenTelemetrySdk only accepts SDK providers, so using our own OpenTelemetry
+        MeterProvider meterProvider = meterProviderFactory.isNoop()
+                ? MeterProvider.noop()
+                : meterProviderFactory.create(resource, clock);
+        MeterProvider telemetry = telemetryMeterProvider != null ? telemetryMeterProvider : meterProvider;
+
+        if (telemetry == MeterProvider.noop() && !(tracerProviderFactory.isNoop() && loggerProviderFactory.isNoop())) {
+            LOGGER.warn("Metrics have only 'none' exporters. The telemetry of the tracer and logger providers "
+                    + "(dropped records, export durations, etc.) will not be collected");
+        }
+
+        TracerProvider tracerProvider = tracerProviderFactory.isNoop()
+                ? TracerProvider.noop()
+                : tracerProviderFactory.create(resource, telemetry, clock, recordExportDuration);
+
+        LoggerProvider loggerProvider = loggerProviderFactory.isNoop()
+                ? LoggerProvider.noop()
+                : loggerProviderFactory.create(resource, telemetry, clock, recordExportDuration);
+
+        return new CompositeOpenTelemetry(tracerProvider, meterProvider, loggerProvider);
+    }
+
+    private Clock createClock() {
+        return clock != null ? clock.create(shutdownManager) : Clock.getDefault();
     }
 
     private SdkLoggerProviderFactory loggerProviderOrDefault() {
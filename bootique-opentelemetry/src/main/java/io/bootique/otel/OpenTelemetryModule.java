@@ -18,21 +18,22 @@
  */
 package io.bootique.otel;
 
+import io.bootique.BQCoreModule;
 import io.bootique.BQModule;
 import io.bootique.ModuleCrate;
 import io.bootique.config.ConfigurationFactory;
 import io.bootique.di.Binder;
 import io.bootique.di.Provides;
 import io.bootique.meta.application.ApplicationMetadata;
+import io.bootique.otel.file.FileExporterOutput;
+import io.bootique.otel.file.FileExporterOutputFactory;
+import io.bootique.otel.file.FileReplayCommand;
 import io.bootique.otel.otlp.OtlpExporterEndpoint;
 import io.bootique.otel.otlp.OtlpExporterEndpointFactory;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.sdk.resources.Resource;
 import jakarta.inject.Singleton;
-import org.slf4j.bridge.SLF4JBridgeHandler;
-
-import java.util.logging.LogManager;
 
 /**
  * @since 4.0
@@ -43,8 +44,15 @@ public class OpenTelemetryModule implements BQModule {
         return new OpenTelemetryModuleExtender(binder).initAllExtensions();
     }
 
-    private static final String CONFIG_PREFIX = "opentelemetry";
+    /**
+     * The name of the meter reporting the telemetry of the module itself, such as dropped records and export
+     * durations.
+     */
+    public static final String METER_NAME = "io.bootique.otel";
+
+    static final String CONFIG_PREFIX = "opentelemetry";
     private static final String OTLP_CONFIG_PREFIX = CONFIG_PREFIX + ".otlp";
+    private static final String FILE_CONFIG_PREFIX = CONFIG_PREFIX + ".file";
 
     @Override
     public ModuleCrate crate() {
@@ -52,11 +60,15 @@ public class OpenTelemetryModule implements BQModule {
                 .description("Integrates OpenTelemetry.")
                 .config(CONFIG_PREFIX, OpenTelemetryFactory.class)
                 .config(OTLP_CONFIG_PREFIX, OtlpExporterEndpointFactory.class)
+                .config(FILE_CONFIG_PREFIX, FileExporterOutputFactory.class)
                 .build();
     }
 
     @Override
     public void configure(Binder binder) {
+        BQCoreModule.extend(binder)
+                .addCommand(FileReplayCommand.class)
+                .addCommand(LoadCommand.class);
     }
 
     @Singleton
@@ -70,8 +82,7 @@ public class OpenTelemetryModule implements BQModule {
     OpenTelemetry provideOpenTelemetry(ConfigurationFactory configFactory, Resource resource) {
 
         // reconfigure JUL used by LoggingMetricExporter and friends
-        LogManager.getLogManager().reset();
-        SLF4JBridgeHandler.install();
+        JulBridge.install();
 
         // If started via agent, use the global singleton. Otherwise, create a Bootique managed instance
         return GlobalOpenTelemetry.isSet()
@@ -84,4 +95,10 @@ public class OpenTelemetryModule implements BQModule {
     OtlpExporterEndpoint provideOtlpExporterEndpoint(ConfigurationFactory configFactory) {
         return configFactory.config(OtlpExporterEndpointFactory.class, OTLP_CONFIG_PREFIX).create();
     }
+
+    @Singleton
+    @Provides
+    FileExporterOutput provideFileExporterOutput(ConfigurationFactory configFactory) {
+        return configFactory.config(FileExporterOutputFactory.class, FILE_CONFIG_PREFIX).create();
+    }
 }
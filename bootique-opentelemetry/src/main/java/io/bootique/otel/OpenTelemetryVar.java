@@ -45,14 +45,28 @@ enum OpenTelemetryVar {
     OTEL_EXPORTER_OTLP_HEADERS("exporter.otlp.headers", "opentelemetry.otlp.headers"),
     // TODO: OTEL_EXPORTER_OTLP_TRACES_HEADERS, OTEL_EXPORTER_OTLP_METRICS_HEADERS, OTEL_EXPORTER_OTLP_LOGS_HEADERS
 
+    // only applicable when the first metrics exporter is "otlp"
+    OTEL_EXPORTER_OTLP_METRICS_TEMPORALITY_PREFERENCE("exporter.otlp.metrics.temporality.preference", "opentelemetry.meterProvider.exporters[0].temporalityPreference"),
+    OTEL_EXPORTER_OTLP_METRICS_DEFAULT_HISTOGRAM_AGGREGATION("exporter.otlp.metrics.default.histogram.aggregation", "opentelemetry.meterProvider.exporters[0].defaultHistogramAggregation"),
+
     /* Metrics SDK Configuration */
     OTEL_METRIC_EXPORT_INTERVAL("metric.export.interval", "opentelemetry.meterProvider.exportInterval"),
 
+    /* LogRecord limits */
+    OTEL_LOGRECORD_ATTRIBUTE_COUNT_LIMIT("logrecord.attribute.count.limit", "opentelemetry.loggerProvider.attributeCountLimit"),
+    OTEL_LOGRECORD_ATTRIBUTE_VALUE_LENGTH_LIMIT("logrecord.attribute.value.length.limit", "opentelemetry.loggerProvider.attributeValueLengthLimit"),
+
     /* Batch span processor */
     OTEL_BSP_SCHEDULE_DELAY("otel.bsp.schedule.delay", "opentelemetry.tracerProvider.scheduleDelay"),
+    OTEL_BSP_MAX_QUEUE_SIZE("otel.bsp.max.queue.size", "opentelemetry.tracerProvider.maxQueueSize"),
+    OTEL_BSP_MAX_EXPORT_BATCH_SIZE("otel.bsp.max.export.batch.size", "opentelemetry.tracerProvider.maxExportBatchSize"),
+    OTEL_BSP_EXPORT_TIMEOUT("otel.bsp.export.timeout", "opentelemetry.tracerProvider.exportTimeout"),
 
     /* Batch log record processor */
-    OTEL_BLRP_SCHEDULE_DELAY("otel.blrp.schedule.delay", "opentelemetry.loggerProvider.scheduleDelay");
+    OTEL_BLRP_SCHEDULE_DELAY("otel.blrp.schedule.delay", "opentelemetry.loggerProvider.scheduleDelay"),
+    OTEL_BLRP_MAX_QUEUE_SIZE("otel.blrp.max.queue.size", "opentelemetry.loggerProvider.maxQueueSize"),
+    OTEL_BLRP_MAX_EXPORT_BATCH_SIZE("otel.blrp.max.export.batch.size", "opentelemetry.loggerProvider.maxExportBatchSize"),
+    OTEL_BLRP_EXPORT_TIMEOUT("otel.blrp.export.timeout", "opentelemetry.loggerProvider.exportTimeout");
 
     public final String otelProperty;
 
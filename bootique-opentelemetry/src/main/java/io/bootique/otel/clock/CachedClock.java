@@ -0,0 +1,88 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.clock;
+
+import io.opentelemetry.sdk.common.Clock;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Clock} that returns the time read from a delegate clock by a background ticker, so that reading the time is
+ * just a volatile read. The wall clock and the monotonic time are updated together, but are read separately, so the
+ * SDK that combines the two may see them one tick apart.
+ *
+ * @since 4.0
+ */
+class CachedClock implements Clock, AutoCloseable {
+
+    private final Clock delegate;
+    private final ScheduledExecutorService ticker;
+
+    private volatile long now;
+    private volatile long nanoTime;
+
+    CachedClock(Clock delegate, Duration resolution) {
+        this.delegate = delegate;
+
+        tick();
+
+        ScheduledThreadPoolExecutor ticker = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "otel-clock-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long resolutionNanos = resolution.toNanos();
+        ticker.scheduleAtFixedRate(this::tick, resolutionNanos, resolutionNanos, TimeUnit.NANOSECONDS);
+        this.ticker = ticker;
+    }
+
+    private void tick() {
+        nanoTime = delegate.nanoTime();
+        now = delegate.now();
+    }
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public long now(boolean highPrecision) {
+        return now;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanoTime;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "CachedClock{delegate=" + delegate + '}';
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.clock;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.shutdown.ShutdownManager;
+import io.bootique.value.Duration;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * A clock that returns the time cached by a background ticker, trading timestamp precision for the cost of reading
+ * the system time on every span start and end, span event and log record.
+ */
+@JsonTypeName("cached")
+public class CachedClockFactory implements ClockFactory {
+
+    private static final java.time.Duration DEFAULT_RESOLUTION = java.time.Duration.ofMillis(1);
+
+    private Duration resolution;
+
+    @BQConfigProperty("""
+            How often the background ticker updates the cached time. This is the precision of all timestamps and
+            durations. Spans shorter than the resolution will have zero duration. The default is "1ms".""")
+    public CachedClockFactory setResolution(Duration resolution) {
+        this.resolution = resolution;
+        return this;
+    }
+
+    @Override
+    public Clock create(ShutdownManager shutdownManager) {
+        return shutdownManager.onShutdown(new CachedClock(Clock.getDefault(), getResolutionOrDefault()));
+    }
+
+    private java.time.Duration getResolutionOrDefault() {
+        if (resolution == null) {
+            return DEFAULT_RESOLUTION;
+        }
+
+        java.time.Duration d = resolution.getDuration();
+        if (d.isZero() || d.isNegative()) {
+            throw new IllegalArgumentException("Clock resolution must be positive: " + d);
+        }
+
+        return d;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A segment appended to via a {@link FileChannel} with a write buffer in front of it.
+ *
+ * @since 4.0
+ */
+class ChannelFileSegment implements FileSegment {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long maxSize;
+    private long size;
+
+    ChannelFileSegment(Path file, FileExporterOutput output) throws IOException {
+        this.buffer = ByteBuffer.allocateDirect(output.bufferSize());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.maxSize = output.maxFileSize();
+    }
+
+    @Override
+    public boolean fits(int length) {
+        return size == 0 || size + length <= maxSize;
+    }
+
+    @Override
+    public void append(byte[] data) throws IOException {
+
+        if (data.length > buffer.remaining()) {
+            drainBuffer();
+        }
+
+        if (data.length > buffer.capacity()) {
+            ByteBuffer src = ByteBuffer.wrap(data);
+            while (src.hasRemaining()) {
+                channel.write(src);
+            }
+        } else {
+            buffer.put(data);
+        }
+
+        size += data.length;
+    }
+
+    @Override
+    public void sync() throws IOException {
+        drainBuffer();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
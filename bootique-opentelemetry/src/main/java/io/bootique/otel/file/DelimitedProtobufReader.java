@@ -0,0 +1,85 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads length-delimited messages from a {@link FileSegmentFormat#DELIMITED_PROTOBUF} segment, compressed or not.
+ *
+ * @since 4.0
+ */
+class DelimitedProtobufReader implements Closeable {
+
+    private final InputStream in;
+
+    DelimitedProtobufReader(Path segment) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(segment));
+        this.in = segment.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * Returns the next message or null if there are no more messages in the segment. A zero length is treated as the
+     * end of the data, as this is what the unused preallocated tail of a segment left behind by a crashed process
+     * looks like.
+     */
+    byte[] next() throws IOException {
+
+        int length = readVarint();
+        if (length <= 0) {
+            return null;
+        }
+
+        byte[] message = in.readNBytes(length);
+        if (message.length < length) {
+            throw new EOFException("Truncated message: expected " + length + " bytes, got " + message.length);
+        }
+
+        return message;
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                return -1;
+            }
+
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed message length");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * A descriptor of a local directory where file exporters for all three types of OpenTelemetry signals (traces,
+ * metrics, logs) write their segments, and of the segment rotation and buffering settings.
+ *
+ * @since 4.0
+ */
+public record FileExporterOutput(
+        Path dir,
+        long maxFileSize,
+        Duration rotationInterval,
+        boolean compress,
+        int queueSize,
+        int bufferSize) {
+}
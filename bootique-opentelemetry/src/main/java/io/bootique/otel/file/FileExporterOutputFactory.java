@@ -0,0 +1,117 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Bytes;
+import io.bootique.value.Duration;
+
+import java.nio.file.Path;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("An optional shared configuration of the \"file\" and \"file-protobuf\" trace, metric, log exporters")
+public class FileExporterOutputFactory {
+
+    private static final String DEFAULT_DIR = "otel";
+    private static final long DEFAULT_MAX_FILE_SIZE = 100 * 1024 * 1024;
+    private static final java.time.Duration DEFAULT_ROTATION_INTERVAL = java.time.Duration.ofHours(1);
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private String dir;
+    private Bytes maxFileSize;
+    private Duration rotationInterval;
+    private Boolean compress;
+    private Integer queueSize;
+    private Bytes bufferSize;
+
+    @BQConfigProperty("""
+            A directory where the exporters write their files. Each signal is written to its own sequence of files
+            (segments) named "<signal>-<timestamp>-<sequence>.<extension>". The directory is created if it doesn't
+            exist. The default is "otel" relative to the current directory.""")
+    public FileExporterOutputFactory setDir(String dir) {
+        this.dir = dir;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max size of a segment. When a segment reaches this size, it is closed, and a new one is started.
+            "file-protobuf" exporters preallocate and memory-map their segments to this size, so for them it must be
+            under "2GB". The mapping of a closed segment is only released when the JVM garbage-collects it, so at
+            most 8 mappings are kept alive across all "file-protobuf" exporters. The segments opened over this limit
+            are written like the "file" exporter segments, via a buffered channel. The default is "100MB".""")
+    public FileExporterOutputFactory setMaxFileSize(Bytes maxFileSize) {
+        this.maxFileSize = maxFileSize;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max time a segment stays open. When it expires, the segment is closed (even if nothing was written to it
+            since), and the next write starts a new one. The default is "1h".""")
+    public FileExporterOutputFactory setRotationInterval(Duration rotationInterval) {
+        this.rotationInterval = rotationInterval;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, closed segments are compressed with gzip and get a ".gz" extension. The default is 'false'.""")
+    public FileExporterOutputFactory setCompress(Boolean compress) {
+        this.compress = compress;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of exported batches waiting to be written to disk. Batches exported when the queue is full
+            (e.g., because the disk is stalled) are dropped, so the export thread never blocks on the disk. The default
+            is 1024.""")
+    public FileExporterOutputFactory setQueueSize(Integer queueSize) {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Size of the write buffer in front of the segment file of the "file" exporters ("file-protobuf" exporters
+            only need it when they can't memory-map a segment, see "maxFileSize"). The default is "64KB".""")
+    public FileExporterOutputFactory setBufferSize(Bytes bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public FileExporterOutput create() {
+        return new FileExporterOutput(
+                Path.of(dir != null ? dir : DEFAULT_DIR),
+                maxFileSize != null ? maxFileSize.getBytes() : DEFAULT_MAX_FILE_SIZE,
+                rotationInterval != null ? rotationInterval.getDuration() : DEFAULT_ROTATION_INTERVAL,
+                compress != null && compress,
+                queueSize != null ? queueSize : DEFAULT_QUEUE_SIZE,
+                bufferSize != null ? createBufferSize(bufferSize) : DEFAULT_BUFFER_SIZE);
+    }
+
+    private static int createBufferSize(Bytes bufferSize) {
+        long bytes = bufferSize.getBytes();
+        if (bytes <= 0 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("'bufferSize' must be positive and under 2GB: " + bytes + " bytes");
+        }
+
+        return Math.toIntExact(bytes);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import io.bootique.cli.Cli;
+import io.bootique.command.CommandOutcome;
+import io.bootique.command.CommandWithMetadata;
+import io.bootique.log.BootLogger;
+import io.bootique.meta.application.CommandMetadata;
+import io.bootique.meta.application.OptionMetadata;
+import io.bootique.otel.otlp.OtlpExporterEndpoint;
+import io.bootique.otel.otlp.OtlpProtocol;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * A command that sends the segments written by the "file-protobuf" exporters to the OTLP endpoint configured under
+ * "opentelemetry.otlp". Used to backfill the telemetry captured while the collector was unreachable, or to move the
+ * captures off the hosts that have no access to the collector.
+ *
+ * @since 4.0
+ */
+public class FileReplayCommand extends CommandWithMetadata {
+
+    static final String NAME = "otel-replay";
+    static final String RATE_OPTION = "otel-replay-rate";
+    static final String PARALLELISM_OPTION = "otel-replay-parallelism";
+
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final String CONTENT_TYPE = "application/x-protobuf";
+
+    private final Provider<OtlpExporterEndpoint> endpoint;
+    private final Provider<BootLogger> logger;
+
+    @Inject
+    public FileReplayCommand(Provider<OtlpExporterEndpoint> endpoint, Provider<BootLogger> logger) {
+        super(CommandMetadata.builder(FileReplayCommand.class)
+                .name(NAME)
+                .description("""
+                        Sends the segments written by the "file-protobuf" exporters to the OTLP endpoint configured
+                        under "opentelemetry.otlp". The value is either a segment file or a directory with segments.
+                        Only "http/protobuf" protocol is supported.""")
+                .valueRequired("path")
+                .addOption(OptionMetadata.builder(RATE_OPTION)
+                        .description("Max number of export requests per second. If not set, the rate is unlimited.")
+                        .valueRequired("requests_per_sec")
+                        .build())
+                .addOption(OptionMetadata.builder(PARALLELISM_OPTION)
+                        .description("Max number of export requests in flight. The default is " + DEFAULT_PARALLELISM)
+                        .valueRequired("requests")
+                        .build())
+                .build());
+
+        this.endpoint = endpoint;
+        this.logger = logger;
+    }
+
+    @Override
+    public CommandOutcome run(Cli cli) {
+
+        OtlpExporterEndpoint endpoint = this.endpoint.get();
+        if (endpoint.protocol() != OtlpProtocol.http_protobuf) {
+            return CommandOutcome.failed(1, "Unsupported OTLP protocol for replay: " + endpoint.protocol()
+                    + ". Only 'http/protobuf' is supported");
+        }
+
+        Path path = Path.of(cli.optionString(NAME));
+        double rate = cli.hasOption(RATE_OPTION) ? Double.parseDouble(cli.optionString(RATE_OPTION)) : 0;
+        int parallelism = cli.hasOption(PARALLELISM_OPTION)
+                ? Integer.parseInt(cli.optionString(PARALLELISM_OPTION))
+                : DEFAULT_PARALLELISM;
+
+        List<Path> segments;
+        try {
+            segments = segments(path);
+        } catch (IOException e) {
+            return CommandOutcome.failed(1, "Error reading segments from " + path, e);
+        }
+
+        Replay replay = new Replay(endpoint, rate, parallelism);
+        long t0 = System.nanoTime();
+
+        for (Path s : segments) {
+            try {
+                replay.replaySegment(s);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.get().stderr("Error reading segment " + s, e);
+                replay.failed.incrementAndGet();
+            }
+        }
+
+        replay.finish();
+
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        logger.get().stdout(String.format(
+                "Replayed %s segment(s) in %s ms. Sent requests: %s, failed requests: %s",
+                segments.size(),
+                ms,
+                replay.sent.get(),
+                replay.failed.get()));
+
+        return replay.failed.get() == 0
+                ? CommandOutcome.succeeded()
+                : CommandOutcome.failed(1, replay.failed.get() + " export request(s) failed");
+    }
+
+    private static List<Path> segments(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+
+        // segment names start with a signal name and a timestamp, so sorting by name restores the order per signal
+        try (Stream<Path> files = Files.list(path)) {
+            String extension = "." + FileSegmentFormat.DELIMITED_PROTOBUF.getExtension();
+            return files
+                    .filter(p -> p.getFileName().toString().contains(extension))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private class Replay {
+
+        final OtlpExporterEndpoint endpoint;
+        final long intervalNanos;
+        final int parallelism;
+        final Semaphore inFlight;
+        final HttpClient client;
+        final AtomicLong sent;
+        final AtomicLong failed;
+        long nextSendAt;
+
+        Replay(OtlpExporterEndpoint endpoint, double rate, int parallelism) {
+            this.endpoint = endpoint;
+            this.intervalNanos = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+            this.parallelism = parallelism;
+            this.inFlight = new Semaphore(parallelism);
+            this.client = HttpClient.newHttpClient();
+            this.sent = new AtomicLong();
+            this.failed = new AtomicLong();
+            this.nextSendAt = System.nanoTime();
+        }
+
+        void replaySegment(Path segment) throws IOException {
+
+            URI uri = URI.create(endpointUrl(segment));
+
+            try (DelimitedProtobufReader reader = new DelimitedProtobufReader(segment)) {
+                byte[] message;
+                while ((message = reader.next()) != null) {
+                    send(uri, message);
+                }
+            }
+        }
+
+        void finish() {
+            inFlight.acquireUninterruptibly(parallelism);
+            inFlight.release(parallelism);
+            client.close();
+        }
+
+        private void send(URI uri, byte[] message) {
+
+            throttle();
+            inFlight.acquireUninterruptibly();
+
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", CONTENT_TYPE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(message));
+            endpoint.headers().forEach(request::header);
+
+            client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding()).whenComplete((r, e) -> {
+                inFlight.release();
+
+                if (e != null) {
+                    failed.incrementAndGet();
+                    logger.get().stderr("Error sending export request to " + uri, e);
+                } else if (r.statusCode() / 100 != 2) {
+                    failed.incrementAndGet();
+                    logger.get().stderr("Export request to " + uri + " failed with status " + r.statusCode());
+                } else {
+                    sent.incrementAndGet();
+                }
+            });
+        }
+
+        private void throttle() {
+            if (intervalNanos == 0) {
+                return;
+            }
+
+            long now;
+            while ((now = System.nanoTime()) < nextSendAt) {
+                LockSupport.parkNanos(nextSendAt - now);
+            }
+
+            // not accumulating the unused permits, so that a slow read can't cause a burst
+            nextSendAt = Math.max(nextSendAt, now) + intervalNanos;
+        }
+
+        private String endpointUrl(Path segment) {
+            String name = segment.getFileName().toString();
+            String signal = name.substring(0, Math.max(name.indexOf('-'), 0));
+
+            return switch (signal) {
+                case "traces" -> endpoint.tracesEndpointUrl();
+                case "metrics" -> endpoint.metricsEndpointUrl();
+                case "logs" -> endpoint.logsEndpointUrl();
+                default -> throw new IllegalArgumentException("Can't determine the signal of the segment: " + segment);
+            };
+        }
+    }
+}
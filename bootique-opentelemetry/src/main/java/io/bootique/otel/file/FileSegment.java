@@ -0,0 +1,44 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import java.io.IOException;
+
+/**
+ * A single open file of a {@link FileSegmentWriter}. Only accessed by the writer thread.
+ *
+ * @since 4.0
+ */
+interface FileSegment {
+
+    /**
+     * Returns whether the data of the given length can be appended without exceeding the max segment size. An empty
+     * segment accepts data of any size, so the data is never split between segments.
+     */
+    boolean fits(int length);
+
+    void append(byte[] data) throws IOException;
+
+    /**
+     * Writes any buffered data and syncs the segment to disk.
+     */
+    void sync() throws IOException;
+
+    void close() throws IOException;
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import io.opentelemetry.exporter.internal.marshal.Marshaler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Encoding of OTLP export requests in the file segments, and the type of segments they are written to.
+ *
+ * @since 4.0
+ */
+public enum FileSegmentFormat {
+
+    /**
+     * Each export request is written as a single line of OTLP JSON. Segments are written via a buffered file channel.
+     */
+    JSON_LINES("jsonl") {
+
+        @Override
+        public byte[] encode(Marshaler marshaler) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                // the JSON generator closes the stream, which is a noop for ByteArrayOutputStream
+                marshaler.writeJsonTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            out.write('\n');
+            return out.toByteArray();
+        }
+
+        @Override
+        FileSegment openSegment(Path file, FileExporterOutput output, int firstLength) throws IOException {
+            return new ChannelFileSegment(file, output);
+        }
+    },
+
+    /**
+     * Each export request is written as a binary protobuf message prefixed with its length as a varint (same as
+     * protobuf "writeDelimitedTo"). Segments are memory-mapped, unless too many mappings are still alive (see
+     * {@link MappedFileSegment}).
+     */
+    DELIMITED_PROTOBUF("binpb") {
+
+        @Override
+        public byte[] encode(Marshaler marshaler) {
+            int size = marshaler.getBinarySerializedSize();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size + 5);
+
+            writeVarint(out, size);
+            try {
+                marshaler.writeBinaryTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return out.toByteArray();
+        }
+
+        @Override
+        FileSegment openSegment(Path file, FileExporterOutput output, int firstLength) throws IOException {
+            return MappedFileSegment.open(file, output, firstLength);
+        }
+
+        @Override
+        void checkOutput(FileExporterOutput output) {
+            super.checkOutput(output);
+
+            // a single memory mapping can't exceed 2GB
+            if (output.maxFileSize() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format(
+                        "'maxFileSize' of the \"file-protobuf\" exporters must be under 2GB: %s bytes",
+                        output.maxFileSize()));
+            }
+        }
+    };
+
+    private final String extension;
+
+    FileSegmentFormat(String extension) {
+        this.extension = extension;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract byte[] encode(Marshaler marshaler);
+
+    abstract FileSegment openSegment(Path file, FileExporterOutput output, int firstLength) throws IOException;
+
+    /**
+     * Throws an exception if the output settings are not supported by the segments of this format.
+     */
+    void checkOutput(FileExporterOutput output) {
+        if (output.maxFileSize() <= 0) {
+            throw new IllegalArgumentException("'maxFileSize' must be positive: " + output.maxFileSize());
+        }
+    }
+}
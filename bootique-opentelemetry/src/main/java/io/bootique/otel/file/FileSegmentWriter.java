@@ -0,0 +1,288 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends exported data to a sequence of local files (segments) of a single signal, rotating the segments by size and
+ * time. The data is encoded on the calling thread and then handed over to a dedicated writer thread via a bounded
+ * queue, so the thread calling {@link #write(Marshaler)} never waits for the disk. When the queue is full, the data
+ * is dropped.
+ *
+ * @since 4.0
+ */
+public class FileSegmentWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSegmentWriter.class);
+
+    private static final DateTimeFormatter SEGMENT_TIMESTAMP_FORMAT = DateTimeFormatter
+            .ofPattern("yyyyMMdd'T'HHmmssSSS")
+            .withZone(ZoneOffset.UTC);
+
+    // how often an idle writer checks whether the current segment has expired
+    private static final long IDLE_CHECK_INTERVAL_MS = 1000;
+
+    // segment names must be unique even if multiple writers of the same signal are started at the same millisecond
+    private static final AtomicInteger SEGMENT_SEQUENCE = new AtomicInteger();
+
+    private final FileExporterOutput output;
+    private final String signal;
+    private final FileSegmentFormat format;
+    private final long rotationIntervalMs;
+
+    private final BlockingQueue<Object> queue;
+    private final AtomicInteger queued;
+    private final AtomicLong dropped;
+    private final AtomicBoolean shutdown;
+    private final Thread thread;
+
+    // the state below is only accessed by the writer thread
+    private FileSegment segment;
+    private Path segmentFile;
+    private long segmentExpiresAt;
+
+    public FileSegmentWriter(FileExporterOutput output, String signal, FileSegmentFormat format) {
+        format.checkOutput(output);
+
+        this.output = output;
+        this.signal = signal;
+        this.format = format;
+        this.rotationIntervalMs = output.rotationInterval().toMillis();
+
+        // tracking the queue size separately, as flush and shutdown requests must never be rejected
+        this.queue = new LinkedBlockingQueue<>();
+        this.queued = new AtomicInteger();
+        this.dropped = new AtomicLong();
+        this.shutdown = new AtomicBoolean();
+
+        this.thread = new Thread(this::run, "otel-file-" + signal + "-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Encodes an OTLP export request and queues it for writing, returning false if the data was dropped because the
+     * queue is full or the writer is shut down.
+     */
+    public boolean write(Marshaler marshaler) {
+        return !shutdown.get() && write(format.encode(marshaler));
+    }
+
+    boolean write(byte[] data) {
+
+        if (shutdown.get()) {
+            return false;
+        }
+
+        if (queued.incrementAndGet() > output.queueSize()) {
+            queued.decrementAndGet();
+
+            // warn on the first drop and then on every power of 2
+            long d = dropped.incrementAndGet();
+            if ((d & (d - 1)) == 0) {
+                LOGGER.warn("The '{}' file writer queue is full. Dropped {} batch(es) so far", signal, d);
+            }
+
+            return false;
+        }
+
+        queue.add(data);
+        return true;
+    }
+
+    /**
+     * Returns a result that is completed when all the data queued before this call is written and synced to disk.
+     */
+    public CompletableResultCode flush() {
+        if (shutdown.get()) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        CompletableResultCode result = new CompletableResultCode();
+        queue.add(new Flush(result, false));
+        return result;
+    }
+
+    /**
+     * Writes all queued data, closes the current segment and stops the writer thread.
+     */
+    public CompletableResultCode shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        CompletableResultCode result = new CompletableResultCode();
+        queue.add(new Flush(result, true));
+        return result;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void run() {
+        while (true) {
+
+            Object next;
+            try {
+                next = queue.poll(IDLE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                closeSegment();
+                return;
+            }
+
+            if (next == null) {
+                closeSegmentIfExpired(System.currentTimeMillis());
+            } else if (next instanceof byte[] data) {
+                queued.decrementAndGet();
+                append(data);
+            } else if (next instanceof Flush flush) {
+
+                boolean success = flush.close ? closeSegment() : syncSegment();
+                if (success) {
+                    flush.result.succeed();
+                } else {
+                    flush.result.fail();
+                }
+
+                if (flush.close) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void append(byte[] data) {
+
+        long now = System.currentTimeMillis();
+        closeSegmentIfExpired(now);
+
+        if (segment != null && !segment.fits(data.length)) {
+            closeSegment();
+        }
+
+        try {
+            if (segment == null) {
+                openSegment(now, data.length);
+            }
+
+            segment.append(data);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to write to the '{}' file segment {}. Starting a new segment", signal, segmentFile, e);
+            closeSegment();
+        }
+    }
+
+    private void openSegment(long now, int firstLength) throws IOException {
+        Files.createDirectories(output.dir());
+
+        String name = signal
+                + "-" + SEGMENT_TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(now))
+                + "-" + SEGMENT_SEQUENCE.incrementAndGet()
+                + "." + format.getExtension();
+
+        segmentFile = output.dir().resolve(name);
+        segment = format.openSegment(segmentFile, output, firstLength);
+        segmentExpiresAt = now + rotationIntervalMs;
+    }
+
+    private boolean syncSegment() {
+        if (segment == null) {
+            return true;
+        }
+
+        try {
+            segment.sync();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to write to the '{}' file segment {}. Starting a new segment", signal, segmentFile, e);
+            closeSegment();
+            return false;
+        }
+    }
+
+    private void closeSegmentIfExpired(long now) {
+        if (segment != null && now >= segmentExpiresAt) {
+            closeSegment();
+        }
+    }
+
+    private boolean closeSegment() {
+        if (segment == null) {
+            return true;
+        }
+
+        Path closed = segmentFile;
+        boolean success = true;
+
+        try {
+            segment.close();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to close the '{}' file segment {}", signal, closed, e);
+            success = false;
+        } finally {
+            segment = null;
+            segmentFile = null;
+        }
+
+        if (output.compress()) {
+            success = compress(closed) && success;
+        }
+
+        return success;
+    }
+
+    private boolean compress(Path file) {
+
+        Path gz = file.resolveSibling(file.getFileName() + ".gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz), output.bufferSize())) {
+                Files.copy(file, out);
+            }
+
+            Files.delete(file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to compress the '{}' file segment {}", signal, file, e);
+            return false;
+        }
+    }
+
+    private record Flush(CompletableResultCode result, boolean close) {
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A segment that is preallocated to the max segment size and memory-mapped, so that appending the data is a memory
+ * copy, and the OS writes the pages to disk in the background. On close, the file is truncated to the size of the
+ * appended data. A segment left behind by a crashed process keeps its full size, with zeros after the last record.
+ * <p>The mapping of a closed segment is only released when its buffer is garbage-collected. To keep the address space
+ * (and open mappings) of the closed segments in check, the number of mappings alive at the same time is capped, and
+ * the segments opened over the cap are written via a file channel instead.
+ *
+ * @since 4.0
+ */
+class MappedFileSegment implements FileSegment {
+
+    // shared by all writers
+    static final int MAX_LIVE_MAPPINGS = 8;
+    private static final ReferenceQueue<MappedByteBuffer> RELEASED_MAPPINGS = new ReferenceQueue<>();
+    private static final Set<Reference<MappedByteBuffer>> LIVE_MAPPINGS = new HashSet<>();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Opens a mapped segment, or a channel segment if the number of live mappings has reached the cap.
+     */
+    static synchronized FileSegment open(Path file, FileExporterOutput output, int firstLength) throws IOException {
+
+        Reference<? extends MappedByteBuffer> released;
+        while ((released = RELEASED_MAPPINGS.poll()) != null) {
+            LIVE_MAPPINGS.remove(released);
+        }
+
+        if (LIVE_MAPPINGS.size() >= MAX_LIVE_MAPPINGS) {
+            return new ChannelFileSegment(file, output);
+        }
+
+        MappedFileSegment segment = new MappedFileSegment(file, output, firstLength);
+        LIVE_MAPPINGS.add(new PhantomReference<>(segment.buffer, RELEASED_MAPPINGS));
+        return segment;
+    }
+
+    private MappedFileSegment(Path file, FileExporterOutput output, int firstLength) throws IOException {
+        this.channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        // the first record must fit even if it is bigger than the max size
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(output.maxFileSize(), firstLength));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean fits(int length) {
+        return buffer.position() == 0 || length <= buffer.remaining();
+    }
+
+    @Override
+    public void append(byte[] data) {
+        buffer.put(data);
+    }
+
+    @Override
+    public void sync() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        // the mapping itself is released when the buffer is garbage-collected (see "open"), which is fine for
+        // truncation on Linux and macOS
+        try (FileChannel c = channel) {
+            buffer.force();
+            c.truncate(buffer.position());
+        }
+    }
+}
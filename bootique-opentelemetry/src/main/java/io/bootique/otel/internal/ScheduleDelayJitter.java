@@ -0,0 +1,46 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.internal;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Randomizes the schedule delay of the SDK batch span and log record processors. The processors don't allow to
+ * customize their worker scheduling, so instead of shifting the start of the worker, a random amount picked once per
+ * processor is added to the delay between every two exports. Internal to the module, not a public API.
+ *
+ * @since 4.0
+ */
+public final class ScheduleDelayJitter {
+
+    private ScheduleDelayJitter() {
+    }
+
+    /**
+     * Returns the schedule delay increased by a random amount between zero (inclusive) and the max jitter (exclusive).
+     * If the max jitter is null or not positive, returns the delay unchanged.
+     */
+    public static Duration apply(Duration scheduleDelay, Duration maxJitter) {
+        long jitterNanos = maxJitter != null ? maxJitter.toNanos() : 0;
+        return jitterNanos > 0
+                ? scheduleDelay.plusNanos(ThreadLocalRandom.current().nextLong(jitterNanos))
+                : scheduleDelay;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link LogRecordExporter} that passes each batch to multiple exporters concurrently, so that a slow exporter
+ * doesn't delay the others. The result is complete when all the exporters are done with the batch. Each exporter may
+ * have a limited number of unfinished exports. When the limit is reached (e.g. the exporter is stuck), the exporter
+ * is skipped for the new batches, and its part of the export is reported as failed. Flushing waits for the unfinished
+ * exports before flushing the exporters.
+ *
+ * @since 4.0
+ */
+class ConcurrentMultiLogRecordExporter implements LogRecordExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentMultiLogRecordExporter.class);
+
+    private final LogRecordExporter[] exporters;
+    private final Semaphore[] inFlightPermits;
+    private final Set<CompletableResultCode> inFlightResults;
+    private final ExecutorService executor;
+
+    ConcurrentMultiLogRecordExporter(LogRecordExporter[] exporters, int maxExportsInFlight, ExecutorService executor) {
+        this.exporters = exporters;
+        this.executor = executor;
+        this.inFlightResults = ConcurrentHashMap.newKeySet();
+        this.inFlightPermits = new Semaphore[exporters.length];
+        for (int i = 0; i < exporters.length; i++) {
+            inFlightPermits[i] = new Semaphore(maxExportsInFlight);
+        }
+    }
+
+    static LogRecordExporter create(List<LogRecordExporter> exporters, int maxExportsInFlight) {
+
+        if (maxExportsInFlight < 1) {
+            throw new IllegalArgumentException("'maxExportsInFlight' must be positive: " + maxExportsInFlight);
+        }
+
+        // enough threads for every exporter to have all its exports running. The number of the submitted tasks is
+        // bounded by the in-flight limits, so the queue is bounded as well
+        int maxThreads = exporters.size() * maxExportsInFlight;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(maxThreads),
+                r -> {
+                    Thread t = new Thread(r, "ConcurrentMultiLogRecordExporter-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        return new ConcurrentMultiLogRecordExporter(exporters.toArray(new LogRecordExporter[0]), maxExportsInFlight, executor);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<LogRecordData> logs) {
+
+        // BatchLogRecordProcessor reuses the batch collection once the export is complete or timed out, while
+        // some exporters may still be working with it
+        List<LogRecordData> logsCopy = List.copyOf(logs);
+
+        List<CompletableResultCode> results = new ArrayList<>(exporters.length);
+        for (int i = 0; i < exporters.length; i++) {
+            results.add(exportAsync(i, logsCopy));
+        }
+
+        return CompletableResultCode.ofAll(results);
+    }
+
+    private CompletableResultCode exportAsync(int i, List<LogRecordData> logs) {
+
+        LogRecordExporter exporter = exporters[i];
+        Semaphore permits = inFlightPermits[i];
+
+        if (!permits.tryAcquire()) {
+            LOGGER.warn("Too many unfinished exports, skipping a batch of {} log records: {}", logs.size(), exporter);
+            return CompletableResultCode.ofFailure();
+        }
+
+        CompletableResultCode result = new CompletableResultCode();
+        inFlightResults.add(result);
+        result.whenComplete(() -> inFlightResults.remove(result));
+
+        try {
+            executor.execute(() -> {
+                CompletableResultCode exportResult;
+                try {
+                    exportResult = exporter.export(logs);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Exception thrown by the export.", e);
+                    exportResult = CompletableResultCode.ofFailure();
+                }
+
+                CompletableResultCode finalExportResult = exportResult;
+                finalExportResult.whenComplete(() -> {
+                    permits.release();
+                    if (finalExportResult.isSuccess()) {
+                        result.succeed();
+                    } else {
+                        result.fail();
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            result.fail();
+        }
+
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+
+        // the exports submitted before the flush must be finished before the exporters are flushed
+        CompletableResultCode inFlight = CompletableResultCode.ofAll(List.copyOf(inFlightResults));
+        CompletableResultCode result = new CompletableResultCode();
+
+        inFlight.whenComplete(() -> {
+            CompletableResultCode flushed = flushExporters();
+            flushed.whenComplete(() -> {
+                if (inFlight.isSuccess() && flushed.isSuccess()) {
+                    result.succeed();
+                } else {
+                    result.fail();
+                }
+            });
+        });
+
+        return result;
+    }
+
+    private CompletableResultCode flushExporters() {
+        List<CompletableResultCode> results = new ArrayList<>(exporters.length);
+        for (LogRecordExporter e : exporters) {
+            try {
+                results.add(e.flush());
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Exception thrown by the flush.", ex);
+                results.add(CompletableResultCode.ofFailure());
+            }
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+
+        // the already submitted exports will still run
+        executor.shutdown();
+
+        List<CompletableResultCode> results = new ArrayList<>(exporters.length);
+        for (LogRecordExporter e : exporters) {
+            try {
+                results.add(e.shutdown());
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Exception thrown by the shutdown.", ex);
+                results.add(CompletableResultCode.ofFailure());
+            }
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentMultiLogRecordExporter{exporters=" + Arrays.toString(exporters) + '}';
+    }
+}
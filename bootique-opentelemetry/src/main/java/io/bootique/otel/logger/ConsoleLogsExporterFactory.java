@@ -19,6 +19,7 @@
 package io.bootique.otel.logger;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfigProperty;
 
 /**
  * @since 4.0
@@ -26,12 +27,24 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 @JsonTypeName("console")
 public class ConsoleLogsExporterFactory implements LogsExporterFactory {
 
+    private Boolean batch;
+
+    @BQConfigProperty("""
+            If true, log records are passed to the exporter via the batch processor, and each batch is printed with a
+            single logger call, with one line per record. This reduces the logging overhead at the cost of delayed
+            output. The default is 'false', i.e. each record is printed immediately with its own logger call.""")
+    public ConsoleLogsExporterFactory setBatch(Boolean batch) {
+        this.batch = batch;
+        return this;
+    }
+
     @Override
     public LogRecordExporterHolder create() {
 
         // TODO: Using internal log exporter. As of 1.59.0, OTel has no Logger based exporter
         //  (unlike e.g., metrics exporters). It only has a STDOUT exporter. So we provide our own.
 
-        return new LogRecordExporterHolder(LoggerLogRecordExporter::new, false);
+        boolean batch = this.batch != null && this.batch;
+        return new LogRecordExporterHolder(() -> new LoggerLogRecordExporter(batch), batch);
     }
 }
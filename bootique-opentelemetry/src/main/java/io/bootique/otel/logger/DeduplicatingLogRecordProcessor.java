@@ -0,0 +1,296 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.common.ValueType;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link LogRecordProcessor} that suppresses duplicate log records before they reach the downstream processors. The
+ * records are considered duplicates if they have the same scope, severity, body "template" (the body with numbers
+ * ignored) and exception type. Within each time window only the first few duplicates are passed downstream. At the
+ * end of the window, a summary record is emitted for each suppressed group. The summary is a copy of the first
+ * suppressed record with the "log.suppressed.count" attribute. The number of the tracked groups is bounded. When the
+ * limit is reached, the records of the new groups are passed downstream without deduplication. Groups are looked up by
+ * a hash, but the records are compared with the group on every hit, so the records whose hashes collide are passed
+ * downstream without deduplication instead of being merged.
+ *
+ * @since 4.0
+ */
+class DeduplicatingLogRecordProcessor implements LogRecordProcessor {
+
+    static final AttributeKey<Long> SUPPRESSED_COUNT = AttributeKey.longKey("log.suppressed.count");
+    static final AttributeKey<String> EXCEPTION_TYPE = AttributeKey.stringKey("exception.type");
+
+    private static final int STRIPES = 16;
+
+    private final LogRecordProcessor delegate;
+    private final int maxPerWindow;
+    private final int maxGroupsPerStripe;
+    private final Stripe[] stripes;
+    private final ScheduledExecutorService scheduler;
+
+    DeduplicatingLogRecordProcessor(LogRecordProcessor delegate, int maxPerWindow, int maxGroups) {
+        this.delegate = delegate;
+        this.maxPerWindow = maxPerWindow;
+        this.maxGroupsPerStripe = Math.max(1, (maxGroups + STRIPES - 1) / STRIPES);
+
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "DeduplicatingLogRecordProcessor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    DeduplicatingLogRecordProcessor start(java.time.Duration window) {
+        long windowNanos = window.toNanos();
+        scheduler.scheduleAtFixedRate(this::endWindow, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    static long fingerprint(ReadWriteLogRecord log) {
+        long h = log.getInstrumentationScopeInfo().getName().hashCode();
+        h = 31 * h + log.getSeverity().ordinal();
+        h = 31 * h + templateHash(log.getBodyValue());
+
+        String exceptionType = log.getAttribute(EXCEPTION_TYPE);
+        h = 31 * h + (exceptionType != null ? exceptionType.hashCode() : 0);
+
+        // spread the bits, as the stripe is selected from the lower bits
+        h *= 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    // hashes the body String, treating any sequence of digits as a single placeholder
+    static int templateHash(Value<?> body) {
+        String s = bodyString(body);
+        if (s == null) {
+            return 0;
+        }
+
+        int h = 0;
+        boolean inNumber = false;
+
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) {
+                if (!inNumber) {
+                    h = 31 * h + '#';
+                    inNumber = true;
+                }
+            } else {
+                h = 31 * h + c;
+                inNumber = false;
+            }
+        }
+
+        return h;
+    }
+
+    // compares two body Strings, treating any sequence of digits as a single placeholder, consistent with templateHash
+    static boolean templateEquals(String s1, String s2) {
+        if (s1 == null || s2 == null) {
+            return s1 == s2;
+        }
+
+        int len1 = s1.length();
+        int len2 = s2.length();
+        int i = 0;
+        int j = 0;
+
+        while (i < len1 && j < len2) {
+            char c1 = s1.charAt(i);
+            char c2 = s2.charAt(j);
+
+            if (isDigit(c1) && isDigit(c2)) {
+                while (i < len1 && isDigit(s1.charAt(i))) {
+                    i++;
+                }
+                while (j < len2 && isDigit(s2.charAt(j))) {
+                    j++;
+                }
+            } else if (c1 != c2) {
+                return false;
+            } else {
+                i++;
+                j++;
+            }
+        }
+
+        return i == len1 && j == len2;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String bodyString(Value<?> body) {
+        if (body == null) {
+            return null;
+        }
+
+        return body.getType() == ValueType.STRING ? (String) body.getValue() : body.asString();
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        if (accept(logRecord)) {
+            delegate.onEmit(context, logRecord);
+        }
+    }
+
+    private boolean accept(ReadWriteLogRecord logRecord) {
+
+        long fingerprint = fingerprint(logRecord);
+        Stripe stripe = stripes[(int) fingerprint & (STRIPES - 1)];
+
+        synchronized (stripe) {
+            Group group = stripe.groups.get(fingerprint);
+            if (group == null) {
+
+                // too many groups, can't track any more in this window
+                if (stripe.groups.size() >= maxGroupsPerStripe) {
+                    return true;
+                }
+
+                group = new Group(logRecord);
+                stripe.groups.put(fingerprint, group);
+            }
+
+            // a fingerprint collision with an unrelated group, can't deduplicate it
+            else if (!group.matches(logRecord)) {
+                return true;
+            }
+
+            if (++group.count <= maxPerWindow) {
+                return true;
+            }
+
+            if (group.suppressed++ == 0) {
+                group.sample = logRecord.toLogRecordData();
+            }
+
+            return false;
+        }
+    }
+
+    void endWindow() {
+
+        List<LogRecordData> suppressed = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Group> it = stripe.groups.values().iterator();
+                while (it.hasNext()) {
+                    Group g = it.next();
+
+                    if (g.suppressed > 0) {
+                        suppressed.add(g.sample);
+                        counts.add(g.suppressed);
+                    }
+
+                    // forget the groups that were idle during the window, reset the rest
+                    if (g.count == 0) {
+                        it.remove();
+                    } else {
+                        g.count = 0;
+                        g.suppressed = 0;
+                        g.sample = null;
+                    }
+                }
+            }
+        }
+
+        long now = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        for (int i = 0; i < suppressed.size(); i++) {
+            delegate.onEmit(Context.root(), new SuppressedLogRecordSummary(suppressed.get(i), counts.get(i), now));
+        }
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        scheduler.shutdownNow();
+
+        // report whatever was suppressed in the last window
+        endWindow();
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "DeduplicatingLogRecordProcessor{delegate=" + delegate + ", maxPerWindow=" + maxPerWindow + '}';
+    }
+
+    private static class Stripe {
+        final Map<Long, Group> groups = new HashMap<>();
+    }
+
+    private static class Group {
+        final String scope;
+        final Severity severity;
+        final String body;
+        final String exceptionType;
+
+        int count;
+        long suppressed;
+        LogRecordData sample;
+
+        Group(ReadWriteLogRecord log) {
+            this.scope = log.getInstrumentationScopeInfo().getName();
+            this.severity = log.getSeverity();
+            this.body = bodyString(log.getBodyValue());
+            this.exceptionType = log.getAttribute(EXCEPTION_TYPE);
+        }
+
+        boolean matches(ReadWriteLogRecord log) {
+            return severity == log.getSeverity()
+                    && scope.equals(log.getInstrumentationScopeInfo().getName())
+                    && Objects.equals(exceptionType, log.getAttribute(EXCEPTION_TYPE))
+                    && templateEquals(body, bodyString(log.getBodyValue()));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.bootique.otel.file.FileSegmentWriter;
+import io.opentelemetry.exporter.internal.otlp.logs.LogsRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+
+import java.util.Collection;
+
+/**
+ * Writes each exported batch of log records to the file segments as a single OTLP "ExportLogsServiceRequest"
+ * message, encoded in the writer format.
+ *
+ * @since 4.0
+ */
+class FileLogRecordExporter implements LogRecordExporter {
+
+    private final FileSegmentWriter writer;
+
+    FileLogRecordExporter(FileSegmentWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<LogRecordData> logs) {
+        return writer.write(LogsRequestMarshaler.create(logs))
+                ? CompletableResultCode.ofSuccess()
+                : CompletableResultCode.ofFailure();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return writer.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return writer.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "FileLogRecordExporter{}";
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Duration;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Suppresses duplicate log records, emitting a periodic summary with the number of suppressed records instead")
+public class LogDeduplicationFactory {
+
+    private Duration window;
+    private Integer maxPerWindow;
+    private Integer maxGroups;
+
+    @BQConfigProperty("""
+            Time window for counting duplicates. At the end of each window, a summary record is emitted for every
+            group of suppressed records. The default is '10s'""")
+    public LogDeduplicationFactory setWindow(Duration window) {
+        this.window = window;
+        return this;
+    }
+
+    @BQConfigProperty("Max number of duplicate records let through per window. The default is 1")
+    public LogDeduplicationFactory setMaxPerWindow(Integer maxPerWindow) {
+        this.maxPerWindow = maxPerWindow;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of distinct groups of duplicates tracked at any given moment. Bounds the memory used by
+            deduplication. The records that don't fit are passed through as is. The default is 1000""")
+    public LogDeduplicationFactory setMaxGroups(Integer maxGroups) {
+        this.maxGroups = maxGroups;
+        return this;
+    }
+
+    public LogRecordProcessor create(LogRecordProcessor delegate) {
+        return new DeduplicatingLogRecordProcessor(
+                delegate,
+                maxPerWindow != null ? maxPerWindow : 1,
+                maxGroups != null ? maxGroups : 1000)
+                .start(window != null ? window.getDuration() : java.time.Duration.ofSeconds(10));
+    }
+}
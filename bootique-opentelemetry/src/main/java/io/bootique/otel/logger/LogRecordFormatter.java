@@ -0,0 +1,177 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BiConsumer;
+
+/**
+ * Renders log records to text for {@link LoggerLogRecordExporter}. The formatter is stateful and not thread-safe.
+ * It reuses its buffer between the records and caches the formatted date and time down to seconds, so formatting a
+ * record produces almost no garbage besides the final String. The output is the same as produced by
+ * {@link DateTimeFormatter#ISO_DATE_TIME} for the timestamp in UTC and by {@code Attributes.toString()} for the
+ * attributes.
+ *
+ * @since 4.0
+ */
+class LogRecordFormatter implements BiConsumer<AttributeKey<?>, Object> {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    // don't let a single huge record or batch pin a large buffer to the thread forever
+    private static final int MAX_RETAINED_CAPACITY = 512 * 1024;
+
+    private final StringBuilder buffer;
+
+    private long cachedSecond;
+    private String cachedSecondPrefix;
+    private boolean firstAttribute;
+
+    LogRecordFormatter() {
+        this.buffer = new StringBuilder(256);
+        this.cachedSecond = Long.MIN_VALUE;
+    }
+
+    /**
+     * Formats the record into the internal buffer, returning the buffer. The buffer contents is only valid until the
+     * next call to this method.
+     */
+    StringBuilder format(LogRecordData log) {
+        reset();
+        appendLog(log);
+        return buffer;
+    }
+
+    /**
+     * Appends the formatted record to the internal buffer, preceded by a line separator if the buffer is not empty.
+     * Allows to render multiple records as a single multi-line String.
+     */
+    LogRecordFormatter appendLine(LogRecordData log) {
+        if (!buffer.isEmpty()) {
+            buffer.append(System.lineSeparator());
+        }
+
+        appendLog(log);
+        return this;
+    }
+
+    /**
+     * Clears the internal buffer.
+     */
+    LogRecordFormatter reset() {
+        buffer.setLength(0);
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer.trimToSize();
+        }
+
+        return this;
+    }
+
+    StringBuilder buffer() {
+        return buffer;
+    }
+
+    private void appendLog(LogRecordData log) {
+
+        InstrumentationScopeInfo scope = log.getInstrumentationScopeInfo();
+        SpanContext spanContext = log.getSpanContext();
+        Value<?> body = log.getBodyValue();
+
+        appendTimestamp(log.getTimestampEpochNanos());
+
+        buffer.append(' ')
+                .append(log.getSeverity())
+                .append(" '")
+                .append(body == null ? "" : body.asString())
+                .append("' : ")
+                .append(spanContext.getTraceId())
+                .append(' ')
+                .append(spanContext.getSpanId())
+                .append(" [scopeInfo: ")
+                .append(scope.getName())
+                .append(':')
+                .append(scope.getVersion() == null ? "" : scope.getVersion())
+                .append("] {");
+
+        firstAttribute = true;
+        log.getAttributes().forEach(this);
+        buffer.append('}');
+    }
+
+    // the same output as "ISO_DATE_TIME" for the UTC timestamp truncated to millis
+    private void appendTimestamp(long epochNanos) {
+
+        long second = Math.floorDiv(epochNanos, NANOS_PER_SECOND);
+        if (second != cachedSecond) {
+            cachedSecondPrefix = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC));
+            cachedSecond = second;
+        }
+
+        buffer.append(cachedSecondPrefix);
+
+        // the fraction is printed with as many digits as needed, and is omitted if zero
+        int millis = (int) (Math.floorMod(epochNanos, NANOS_PER_SECOND) / NANOS_PER_MILLI);
+        if (millis != 0) {
+            buffer.append('.').append((char) ('0' + millis / 100));
+
+            int rest = millis % 100;
+            if (rest != 0) {
+                buffer.append((char) ('0' + rest / 10));
+                if (rest % 10 != 0) {
+                    buffer.append((char) ('0' + rest % 10));
+                }
+            }
+        }
+
+        buffer.append('Z');
+    }
+
+    // appending attributes one by one, without creating an intermediate String
+    @Override
+    public void accept(AttributeKey<?> key, Object value) {
+        if (firstAttribute) {
+            firstAttribute = false;
+        } else {
+            buffer.append(", ");
+        }
+
+        buffer.append(key.getKey()).append('=');
+
+        if (value instanceof String s) {
+            buffer.append('"').append(s).append('"');
+        } else if (value instanceof Long l) {
+            buffer.append(l.longValue());
+        } else if (value instanceof Double d) {
+            buffer.append(d.doubleValue());
+        } else if (value instanceof Boolean b) {
+            buffer.append(b.booleanValue());
+        } else {
+            buffer.append(value);
+        }
+    }
+}
@@ -18,22 +18,15 @@
  */
 package io.bootique.otel.logger;
 
-import io.opentelemetry.api.common.Value;
 import io.opentelemetry.sdk.common.CompletableResultCode;
-import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.logs.data.LogRecordData;
 import io.opentelemetry.sdk.logs.export.LogRecordExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import static java.util.concurrent.TimeUnit.NANOSECONDS;
-
 /**
  * @since 4.0
  */
@@ -44,9 +37,24 @@ class LoggerLogRecordExporter implements LogRecordExporter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoggerLogRecordExporter.class);
 
-    private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ISO_DATE_TIME;
+    // exports may come from multiple threads (e.g. when used with the simple processor), so the formatter
+    // holding the reusable buffer is thread-bound
+    private static final ThreadLocal<LogRecordFormatter> FORMATTER = ThreadLocal.withInitial(LogRecordFormatter::new);
 
     private final AtomicBoolean isShutdown = new AtomicBoolean();
+    private final boolean singleWrite;
+
+    LoggerLogRecordExporter() {
+        this(false);
+    }
+
+    /**
+     * @param singleWrite if true, the entire exported collection is printed with a single logger call, one line per
+     *                    record. This saves the logging backend synchronization and flushing per record.
+     */
+    LoggerLogRecordExporter(boolean singleWrite) {
+        this.singleWrite = singleWrite;
+    }
 
     @Override
     public CompletableResultCode export(Collection<LogRecordData> logs) {
@@ -54,13 +62,21 @@ class LoggerLogRecordExporter implements LogRecordExporter {
             return CompletableResultCode.ofFailure();
         }
 
-        if(LOGGER.isInfoEnabled()) {
-            StringBuilder stringBuilder = new StringBuilder(60);
+        if (logs.isEmpty() || !LOGGER.isInfoEnabled()) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        LogRecordFormatter formatter = FORMATTER.get();
+        if (singleWrite) {
+            formatter.reset();
+            for (LogRecordData log : logs) {
+                formatter.appendLine(log);
+            }
 
+            LOGGER.info(formatter.buffer().toString());
+        } else {
             for (LogRecordData log : logs) {
-                stringBuilder.setLength(0);
-                formatLog(stringBuilder, log);
-                LOGGER.info(stringBuilder.toString());
+                LOGGER.info(formatter.format(log).toString());
             }
         }
 
@@ -72,33 +88,6 @@ class LoggerLogRecordExporter implements LogRecordExporter {
         return CompletableResultCode.ofSuccess();
     }
 
-    static void formatLog(StringBuilder stringBuilder, LogRecordData log) {
-        InstrumentationScopeInfo instrumentationScopeInfo = log.getInstrumentationScopeInfo();
-        Value<?> body = log.getBodyValue();
-        stringBuilder
-                .append(
-                        ISO_FORMAT.format(
-                                Instant.ofEpochMilli(NANOSECONDS.toMillis(log.getTimestampEpochNanos()))
-                                        .atZone(ZoneOffset.UTC)))
-                .append(" ")
-                .append(log.getSeverity())
-                .append(" '")
-                .append(body == null ? "" : body.asString())
-                .append("' : ")
-                .append(log.getSpanContext().getTraceId())
-                .append(" ")
-                .append(log.getSpanContext().getSpanId())
-                .append(" [scopeInfo: ")
-                .append(instrumentationScopeInfo.getName())
-                .append(":")
-                .append(
-                        instrumentationScopeInfo.getVersion() == null
-                                ? ""
-                                : instrumentationScopeInfo.getVersion())
-                .append("] ")
-                .append(log.getAttributes());
-    }
-
     @Override
     public CompletableResultCode shutdown() {
         if (!isShutdown.compareAndSet(false, true)) {
@@ -110,6 +99,6 @@ class LoggerLogRecordExporter implements LogRecordExporter {
 
     @Override
     public String toString() {
-        return "LoggerLogRecordExporter{}";
+        return "LoggerLogRecordExporter{singleWrite=" + singleWrite + '}';
     }
 }
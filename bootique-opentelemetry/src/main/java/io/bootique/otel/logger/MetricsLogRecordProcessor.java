@@ -0,0 +1,116 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.bootique.otel.OpenTelemetryModule;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link LogRecordProcessor} that counts emitted log records in the "log.records" metric by severity, scope name
+ * and, optionally, exception type. Allows to monitor the log volume (e.g. errors per minute per logger) without
+ * exporting the records themselves.
+ *
+ * @since 4.0
+ */
+class MetricsLogRecordProcessor implements LogRecordProcessor {
+
+    static final String COUNTER_NAME = "log.records";
+
+    static final AttributeKey<String> SEVERITY = AttributeKey.stringKey("log.severity");
+    static final AttributeKey<String> SCOPE_NAME = AttributeKey.stringKey("otel.scope.name");
+
+    // the combinations of attributes are cached. The cache size is bounded, as the exception types are unbounded
+    private static final int MAX_CACHED_ATTRIBUTES = 2000;
+
+    private final LongCounter counter;
+    private final boolean withExceptionType;
+    private final Map<AttributesKey, Attributes> attributesCache;
+
+    MetricsLogRecordProcessor(MeterProvider meterProvider, boolean withExceptionType) {
+        this.counter = meterProvider
+                .get(OpenTelemetryModule.METER_NAME)
+                .counterBuilder(COUNTER_NAME)
+                .setDescription("The number of emitted log records")
+                .setUnit("{record}")
+                .build();
+
+        this.withExceptionType = withExceptionType;
+        this.attributesCache = new ConcurrentHashMap<>();
+    }
+
+    private static String severityName(Severity severity) {
+        return severity == Severity.UNDEFINED_SEVERITY_NUMBER ? "UNDEFINED" : severity.name();
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+
+        AttributesKey key = new AttributesKey(
+                logRecord.getInstrumentationScopeInfo().getName(),
+                logRecord.getSeverity(),
+                withExceptionType ? logRecord.getAttribute(DeduplicatingLogRecordProcessor.EXCEPTION_TYPE) : null);
+
+        counter.add(1, attributes(key));
+    }
+
+    private Attributes attributes(AttributesKey key) {
+        Attributes attributes = attributesCache.get(key);
+        if (attributes != null) {
+            return attributes;
+        }
+
+        attributes = key.toAttributes();
+        if (attributesCache.size() < MAX_CACHED_ATTRIBUTES) {
+            attributesCache.putIfAbsent(key, attributes);
+        }
+
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsLogRecordProcessor{withExceptionType=" + withExceptionType + '}';
+    }
+
+    private record AttributesKey(String scopeName, Severity severity, String exceptionType) {
+
+        Attributes toAttributes() {
+            AttributesBuilder builder = Attributes.builder()
+                    .put(SCOPE_NAME, scopeName)
+                    .put(SEVERITY, severityName(severity));
+
+            if (exceptionType != null) {
+                builder.put(DeduplicatingLogRecordProcessor.EXCEPTION_TYPE, exceptionType);
+            }
+
+            return builder.build();
+        }
+    }
+}
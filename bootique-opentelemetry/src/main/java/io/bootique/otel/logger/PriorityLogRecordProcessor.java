@@ -0,0 +1,164 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.bootique.otel.OpenTelemetryModule;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A {@link LogRecordProcessor} that routes log records between two independent processing lanes. The records with
+ * high severity go to a small "priority" lane, the rest - to the "regular" lane. Each lane has its own queue and
+ * export thread, so when the regular lane is overwhelmed and starts dropping records, the priority records are still
+ * exported. Each lane caps the number of records waiting for the export and counts the records dropped over its
+ * capacity in the "log.lane.dropped" metric.
+ * <p>Each lane exports via its own exporter instance, so a slow or stuck export in the regular lane never delays
+ * the priority lane.
+ *
+ * @since 4.0
+ */
+class PriorityLogRecordProcessor implements LogRecordProcessor {
+
+    static final String DROPPED_COUNTER_NAME = "log.lane.dropped";
+    static final AttributeKey<String> LANE = AttributeKey.stringKey("lane");
+
+    private final int minPrioritySeverity;
+    private final Lane priority;
+    private final Lane regular;
+
+    /**
+     * @param exporterFactory  creates an exporter for a lane. Called once per lane
+     * @param processorFactory creates a lane processor (normally a batch processor) for a given exporter and queue
+     *                         capacity
+     */
+    PriorityLogRecordProcessor(
+            MeterProvider meterProvider,
+            Severity minPrioritySeverity,
+            int priorityCapacity,
+            int regularCapacity,
+            Supplier<LogRecordExporter> exporterFactory,
+            BiFunction<LogRecordExporter, Integer, LogRecordProcessor> processorFactory) {
+
+        LongCounter dropped = meterProvider
+                .get(OpenTelemetryModule.METER_NAME)
+                .counterBuilder(DROPPED_COUNTER_NAME)
+                .setDescription("The number of log records dropped because the lane queue was full")
+                .setUnit("{record}")
+                .build();
+
+        this.minPrioritySeverity = minPrioritySeverity.getSeverityNumber();
+        this.priority = new Lane("priority", priorityCapacity, exporterFactory.get(), processorFactory, dropped);
+        this.regular = new Lane("regular", regularCapacity, exporterFactory.get(), processorFactory, dropped);
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        Lane lane = logRecord.getSeverity().getSeverityNumber() >= minPrioritySeverity ? priority : regular;
+        lane.onEmit(context, logRecord);
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofAll(List.of(priority.processor.shutdown(), regular.processor.shutdown()));
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofAll(List.of(priority.processor.forceFlush(), regular.processor.forceFlush()));
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityLogRecordProcessor{priority=" + priority.processor + ", regular=" + regular.processor + '}';
+    }
+
+    // "queued" is incremented when a record is accepted and decremented when the record reaches the exporter. So it
+    // is never less than the size of the processor queue, and the processor itself never drops the records
+    private static class Lane {
+
+        final LogRecordProcessor processor;
+        final int capacity;
+        final AtomicInteger queued;
+        final LongCounter dropped;
+        final Attributes attributes;
+
+        Lane(
+                String name,
+                int capacity,
+                LogRecordExporter exporter,
+                BiFunction<LogRecordExporter, Integer, LogRecordProcessor> processorFactory,
+                LongCounter dropped) {
+
+            this.capacity = capacity;
+            this.queued = new AtomicInteger();
+            this.dropped = dropped;
+            this.attributes = Attributes.of(LANE, name);
+            this.processor = processorFactory.apply(new DequeuingExporter(exporter, queued), capacity);
+        }
+
+        void onEmit(Context context, ReadWriteLogRecord logRecord) {
+            if (queued.incrementAndGet() > capacity) {
+                queued.decrementAndGet();
+                dropped.add(1, attributes);
+                return;
+            }
+
+            processor.onEmit(context, logRecord);
+        }
+    }
+
+    private record DequeuingExporter(LogRecordExporter delegate, AtomicInteger queued) implements LogRecordExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<LogRecordData> logs) {
+            queued.addAndGet(-logs.size());
+            return delegate.export(logs);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
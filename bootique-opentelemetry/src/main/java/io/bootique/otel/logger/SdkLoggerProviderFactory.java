@@ -20,9 +20,14 @@ package io.bootique.otel.logger;
 
 import io.bootique.annotation.BQConfig;
 import io.bootique.annotation.BQConfigProperty;
+import io.bootique.otel.internal.ScheduleDelayJitter;
 import io.bootique.shutdown.ShutdownManager;
 import io.bootique.value.Duration;
+import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.logs.LogLimits;
+import io.opentelemetry.sdk.logs.LogLimitsBuilder;
 import io.opentelemetry.sdk.logs.LogRecordProcessor;
 import io.opentelemetry.sdk.logs.SdkLoggerProvider;
 import io.opentelemetry.sdk.logs.SdkLoggerProviderBuilder;
@@ -32,9 +37,13 @@ import io.opentelemetry.sdk.logs.export.LogRecordExporter;
 import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
 import io.opentelemetry.sdk.resources.Resource;
 import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -44,9 +53,32 @@ import java.util.function.Supplier;
 @BQConfig
 public class SdkLoggerProviderFactory {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SdkLoggerProviderFactory.class);
+
+    // per https://opentelemetry.io/docs/languages/java/configuration/#properties-logs
+    private static final int DEFAULT_MAX_QUEUE_SIZE = 2048;
+    private static final int DEFAULT_MAX_EXPORT_BATCH_SIZE = 512;
+
     private final ShutdownManager shutdownManager;
 
     private Duration scheduleDelay;
+    private Duration exportJitter;
+    private Integer maxQueueSize;
+    private Integer maxExportBatchSize;
+    private Duration exportTimeout;
+    private Integer priorityQueueSize;
+    private String priorityMinSeverity;
+    private Boolean parallelExport;
+    private Integer maxExportsInFlight;
+    private String minSeverity;
+    private Map<String, String> scopeMinSeverity;
+    private LogDeduplicationFactory deduplication;
+    private Double unsampledTraceLogRatio;
+    private Boolean recordMetrics;
+    private Boolean recordMetricsExceptionType;
+    private Boolean recordExportDuration;
+    private Integer attributeCountLimit;
+    private Integer attributeValueLengthLimit;
     private List<LogsExporterFactory> exporters;
 
     @BQConfigProperty("Time interval between the start of two consecutive exports used by the batch processor. The default is '1sec'")
@@ -55,6 +87,149 @@ public class SdkLoggerProviderFactory {
         return this;
     }
 
+    @BQConfigProperty("""
+            Max random amount added to "scheduleDelay" of the batch processor. The amount is picked once per processor
+            and extends every interval between the exports, so that the exports of many app instances started at the
+            same time drift apart instead of arriving at the collector in synchronized waves. If not set, there's no
+            jitter.""")
+    public SdkLoggerProviderFactory setExportJitter(Duration exportJitter) {
+        this.exportJitter = exportJitter;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of log records kept in the batch processor queue. When the queue is full, new records are
+            dropped. The default is 2048""")
+    public SdkLoggerProviderFactory setMaxQueueSize(Integer maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of log records sent to the exporters in a single batch. Must be less than or equal to
+            "maxQueueSize". The default is 512""")
+    public SdkLoggerProviderFactory setMaxExportBatchSize(Integer maxExportBatchSize) {
+        this.maxExportBatchSize = maxExportBatchSize;
+        return this;
+    }
+
+    @BQConfigProperty("Max time to wait for a single batch export to finish. The default is '30sec'")
+    public SdkLoggerProviderFactory setExportTimeout(Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If set, enables a separate "priority" batch processor for the high-severity records (see
+            "priorityMinSeverity") with the queue of this size. It has its own export thread and its own instances of
+            the exporters, so the priority records are neither dropped when the regular queue is full, nor delayed by
+            slow regular exports. The number of records dropped by each lane is reported in the "log.lane.dropped"
+            metric. If not set, all records are processed by a single batch processor.""")
+    public SdkLoggerProviderFactory setPriorityQueueSize(Integer priorityQueueSize) {
+        this.priorityQueueSize = priorityQueueSize;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Minimum severity of the records that are sent to the priority batch processor, when "priorityQueueSize"
+            is set. Should be one of "trace", "debug", "info", "warn", "error", "fatal". The default is "error".""")
+    public SdkLoggerProviderFactory setPriorityMinSeverity(String priorityMinSeverity) {
+        this.priorityMinSeverity = priorityMinSeverity;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, and there are multiple batched exporters, each batch is passed to all the exporters concurrently,
+            so that the export takes as long as the slowest exporter instead of the sum of all exporters. The default
+            is 'false'.""")
+    public SdkLoggerProviderFactory setParallelExport(Boolean parallelExport) {
+        this.parallelExport = parallelExport;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of unfinished exports per exporter when "parallelExport" is enabled. When an exporter reaches
+            this limit, it skips the new batches until its exports are finished. The default is 1""")
+    public SdkLoggerProviderFactory setMaxExportsInFlight(Integer maxExportsInFlight) {
+        this.maxExportsInFlight = maxExportsInFlight;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Minimum severity of the log records. Should be one of "trace", "debug", "info", "warn", "error", "fatal".
+            Records with lower severity are discarded when emitted, before reaching the other processors. Records with
+            no severity are always accepted. If not set, all records are accepted.""")
+    public SdkLoggerProviderFactory setMinSeverity(String minSeverity) {
+        this.minSeverity = minSeverity;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Minimum severity of log records per instrumentation scope, overriding "minSeverity". The keys are scope
+            names. A scope setting also applies to the scopes with names that start with the scope name followed by a
+            dot (i.e. "com.foo" applies to "com.foo.Bar"). The values are the same as in "minSeverity".""")
+    public SdkLoggerProviderFactory setScopeMinSeverity(Map<String, String> scopeMinSeverity) {
+        this.scopeMinSeverity = scopeMinSeverity;
+        return this;
+    }
+
+    @BQConfigProperty("Optional deduplication of log records. If not set, no deduplication is performed.")
+    public SdkLoggerProviderFactory setDeduplication(LogDeduplicationFactory deduplication) {
+        this.deduplication = deduplication;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Fraction of unsampled traces whose logs are exported, between 0 and 1. Applies to the log records that are
+            linked to a trace that was not sampled and whose severity is below WARN. The decision is made per trace,
+            so the logs of a trace are either all kept or all dropped. With 0, such records are always dropped. If not
+            set, the records are kept regardless of the trace sampling.""")
+    public SdkLoggerProviderFactory setUnsampledTraceLogRatio(Double unsampledTraceLogRatio) {
+        this.unsampledTraceLogRatio = unsampledTraceLogRatio;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, emitted log records are counted in the "log.records" metric by severity and scope name. Combined
+            with the "none" exporter, allows to monitor the log volume without exporting the logs. The default is
+            'false'.""")
+    public SdkLoggerProviderFactory setRecordMetrics(Boolean recordMetrics) {
+        this.recordMetrics = recordMetrics;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, and "recordMetrics" is enabled, the "log.records" metric is also broken down by the
+            "exception.type" attribute of the records. The default is 'false'.""")
+    public SdkLoggerProviderFactory setRecordMetricsExceptionType(Boolean recordMetricsExceptionType) {
+        this.recordMetricsExceptionType = recordMetricsExceptionType;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, the duration of each batch export is recorded in the "log.export.duration" histogram, broken
+            down by the "outcome" ("success" or "failure"). Always enabled by the "otel-load" command. The default is
+            'false'.""")
+    public SdkLoggerProviderFactory setRecordExportDuration(Boolean recordExportDuration) {
+        this.recordExportDuration = recordExportDuration;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of attributes per log record. The attributes over the limit are discarded. The default is 128""")
+    public SdkLoggerProviderFactory setAttributeCountLimit(Integer attributeCountLimit) {
+        this.attributeCountLimit = attributeCountLimit;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max length of String attribute values (including the elements of String arrays) of log records. Longer
+            values are truncated. The default is no limit""")
+    public SdkLoggerProviderFactory setAttributeValueLengthLimit(Integer attributeValueLengthLimit) {
+        this.attributeValueLengthLimit = attributeValueLengthLimit;
+        return this;
+    }
+
     @BQConfigProperty
     public SdkLoggerProviderFactory setExporters(List<LogsExporterFactory> exporters) {
         this.exporters = exporters;
@@ -66,23 +241,106 @@ public class SdkLoggerProviderFactory {
         this.shutdownManager = shutdownManager;
     }
 
+    /**
+     * Returns true if all the configured exporters are "none" and no log metrics are recorded, so the provider
+     * created by this factory would process the log records just to throw them away. In this case a no-op provider
+     * should be used instead.
+     */
+    public boolean isNoop() {
+        return (recordMetrics == null || !recordMetrics)
+                && exporters != null
+                && !exporters.isEmpty()
+                && exporters.stream().allMatch(e -> e instanceof NoneLogsExporterFactory);
+    }
+
     public SdkLoggerProvider create(Resource resource, MeterProvider meterProvider) {
+        return create(resource, meterProvider, Clock.getDefault());
+    }
+
+    public SdkLoggerProvider create(Resource resource, MeterProvider meterProvider, Clock clock) {
+        return create(resource, meterProvider, clock, false);
+    }
+
+    /**
+     * Creates the provider, recording the export durations if either "recordExportDuration" is enabled in the
+     * configuration, or "forceRecordExportDuration" is true.
+     */
+    public SdkLoggerProvider create(
+            Resource resource,
+            MeterProvider meterProvider,
+            Clock clock,
+            boolean forceRecordExportDuration) {
+
+        boolean timed = forceRecordExportDuration || (recordExportDuration != null && recordExportDuration);
 
         Supplier<MeterProvider> meterProviderSupplier = () -> meterProvider;
 
         SdkLoggerProviderBuilder builder = SdkLoggerProvider
                 .builder()
                 .setResource(resource)
+                .setClock(clock)
                 .setMeterProvider(meterProviderSupplier);
 
-        // TODO: clock
-        // TODO: log limits
+        LogLimits logLimits = createLogLimits();
+        builder.setLogLimits(() -> logLimits);
+
+        // counting the records before any filtering other than by severity
+        List<LogRecordProcessor> processors = new ArrayList<>(2);
+        if (recordMetrics != null && recordMetrics) {
+
+            // the counters of a no-op meter provider would go nowhere
+            if (meterProvider == MeterProvider.noop()) {
+                LOGGER.warn("Metrics have only 'none' exporters. Ignoring 'recordMetrics' of the logger provider");
+            } else {
+                processors.add(new MetricsLogRecordProcessor(
+                        meterProvider,
+                        recordMetricsExceptionType != null && recordMetricsExceptionType));
+            }
+        }
+
+        List<LogRecordProcessor> exportProcessors = createProcessors(meterProviderSupplier, timed);
+        boolean filtered = deduplication != null || unsampledTraceLogRatio != null;
+        if (filtered) {
+            processors.add(createFilteringProcessor(LogRecordProcessor.composite(exportProcessors)));
+        } else {
+            processors.addAll(exportProcessors);
+        }
+
+        // the wrapped processors are not registered for shutdown on their own. They are shut down by the provider via
+        // the wrapper after it is done with them (e.g., after deduplication emits its final summaries)
+        LogRecordProcessor severityProcessor = createSeverityProcessor(processors);
+        if (severityProcessor != null) {
+            builder.addLogRecordProcessor(severityProcessor);
+        } else {
+            if (!filtered) {
+                exportProcessors.forEach(shutdownManager::onShutdown);
+            }
+
+            processors.forEach(builder::addLogRecordProcessor);
+        }
 
-        createProcessors(meterProviderSupplier).forEach(builder::addLogRecordProcessor);
         return shutdownManager.onShutdown(builder.build());
     }
 
-    private List<LogRecordProcessor> createProcessors(Supplier<MeterProvider> meterProvider) {
+    // filtering processors must be in front of all other processors, so they wrap them. No explicit shutdown for
+    // the wrappers, as they are shut down by the provider
+    private LogRecordProcessor createFilteringProcessor(LogRecordProcessor processor) {
+
+        LogRecordProcessor result = processor;
+
+        if (deduplication != null) {
+            result = deduplication.create(result);
+        }
+
+        // dropping unsampled first, so that they don't take up deduplication capacity
+        if (unsampledTraceLogRatio != null) {
+            result = new TraceBasedLogRecordProcessor(result, unsampledTraceLogRatio);
+        }
+
+        return result;
+    }
+
+    private List<LogRecordProcessor> createProcessors(Supplier<MeterProvider> meterProvider, boolean timed) {
         List<LogRecordProcessor> processors = new ArrayList<>(2);
 
         List<LogRecordExporterHolder> batchedExporters = exporterHolders()
@@ -98,7 +356,9 @@ public class SdkLoggerProviderFactory {
                 .toList();
 
         if (!batchedExporters.isEmpty()) {
-            processors.add(createBatchProcessor(batchedExporters, meterProvider));
+            processors.add(priorityQueueSize != null
+                    ? createPriorityProcessor(batchedExporters, meterProvider, timed)
+                    : createBatchProcessor(createExporter(batchedExporters), getMaxQueueSizeOrDefault(), meterProvider, timed));
         }
 
         return processors;
@@ -106,32 +366,99 @@ public class SdkLoggerProviderFactory {
 
     private LogRecordProcessor createSimpleProcessor(LogRecordExporterHolder exporterSupplier, Supplier<MeterProvider> meterProvider) {
         // presumably we don't need to shut down the exporter, as SpanProcessor would do it for us
-        LogRecordProcessor processor = SimpleLogRecordProcessor
+        return SimpleLogRecordProcessor
                 .builder(exporterSupplier.exporterSupplier().get())
                 .setMeterProvider(meterProvider)
                 .build();
-
-        return shutdownManager.onShutdown(processor);
     }
 
-    private BatchLogRecordProcessor createBatchProcessor(List<LogRecordExporterHolder> exporterSuppliers, Supplier<MeterProvider> meterProvider) {
+    private LogRecordProcessor createPriorityProcessor(
+            List<LogRecordExporterHolder> exporterSuppliers,
+            Supplier<MeterProvider> meterProvider,
+            boolean timed) {
+
+        // each lane gets its own exporters, so that a blocked regular export doesn't hold up the priority lane
+        return new PriorityLogRecordProcessor(
+                meterProvider.get(),
+                priorityMinSeverity != null ? SeverityLogRecordProcessor.parseSeverity(priorityMinSeverity) : Severity.ERROR,
+                priorityQueueSize,
+                getMaxQueueSizeOrDefault(),
+                () -> createExporter(exporterSuppliers),
+                (e, queueSize) -> createBatchProcessor(e, queueSize, meterProvider, timed));
+    }
 
+    private LogRecordExporter createExporter(List<LogRecordExporterHolder> exporterSuppliers) {
         List<LogRecordExporter> exporters = exporterSuppliers.stream().map(s -> s.exporterSupplier().get()).toList();
-        LogRecordExporter composite = MultiLogRecordExporter.create(exporters);
+        return parallelExport != null && parallelExport && exporters.size() > 1
+                ? ConcurrentMultiLogRecordExporter.create(exporters, maxExportsInFlight != null ? maxExportsInFlight : 1)
+                : MultiLogRecordExporter.create(exporters);
+    }
+
+    private BatchLogRecordProcessor createBatchProcessor(
+            LogRecordExporter exporter,
+            int queueSize,
+            Supplier<MeterProvider> meterProvider,
+            boolean timed) {
 
         // presumably we don't need to shut down the exporter, as BatchLogRecordProcessor would do it for us
         BatchLogRecordProcessorBuilder builder = BatchLogRecordProcessor
-                .builder(composite)
+                .builder(timed
+                        ? new TimedLogRecordExporter(exporter, meterProvider.get())
+                        : exporter)
                 .setMeterProvider(meterProvider)
-                .setScheduleDelay(getScheduleDelayOrDefault());
+                .setScheduleDelay(ScheduleDelayJitter.apply(
+                        getScheduleDelayOrDefault(),
+                        exportJitter != null ? exportJitter.getDuration() : null))
+                .setMaxQueueSize(queueSize);
 
-        // TODO:
-        //  support props for the builder:
-        //   max.queue.size
-        //   max.export.batch.size
-        //   export.timeout
+        // a small priority queue may be shorter than the batch
+        if (maxExportBatchSize != null) {
+            builder.setMaxExportBatchSize(Math.min(maxExportBatchSize, queueSize));
+        } else if (queueSize < DEFAULT_MAX_EXPORT_BATCH_SIZE) {
+            builder.setMaxExportBatchSize(queueSize);
+        }
 
-        return shutdownManager.onShutdown(builder.build());
+        if (exportTimeout != null) {
+            builder.setExporterTimeout(exportTimeout.getDuration());
+        }
+
+        return builder.build();
+    }
+
+    // severity filtering must be in front of all other processors, including the metrics, so it wraps them
+    private LogRecordProcessor createSeverityProcessor(List<LogRecordProcessor> processors) {
+
+        if (minSeverity == null && (scopeMinSeverity == null || scopeMinSeverity.isEmpty())) {
+            return null;
+        }
+
+        Map<String, Severity> scopeSeverities = new HashMap<>();
+        if (scopeMinSeverity != null) {
+            scopeMinSeverity.forEach((k, v) -> scopeSeverities.put(k, SeverityLogRecordProcessor.parseSeverity(v)));
+        }
+
+        return new SeverityLogRecordProcessor(
+                LogRecordProcessor.composite(processors),
+                minSeverity != null ? SeverityLogRecordProcessor.parseSeverity(minSeverity) : null,
+                scopeSeverities);
+    }
+
+    private LogLimits createLogLimits() {
+        LogLimitsBuilder builder = LogLimits.builder();
+
+        if (attributeCountLimit != null) {
+            builder.setMaxNumberOfAttributes(attributeCountLimit);
+        }
+
+        if (attributeValueLengthLimit != null) {
+            builder.setMaxAttributeValueLength(attributeValueLengthLimit);
+        }
+
+        return builder.build();
+    }
+
+    private int getMaxQueueSizeOrDefault() {
+        return maxQueueSize != null ? maxQueueSize : DEFAULT_MAX_QUEUE_SIZE;
     }
 
     private java.time.Duration getScheduleDelayOrDefault() {
@@ -0,0 +1,120 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link LogRecordProcessor} that discards the log records below the minimum severity of their instrumentation
+ * scope before they reach the downstream processors. Scope-specific severities apply to the scope with the same name
+ * and to its "children" (i.e., the scopes whose names start with the scope name followed by a dot), the longest match
+ * winning. The records with no severity are always accepted.
+ *
+ * @since 4.0
+ */
+class SeverityLogRecordProcessor implements LogRecordProcessor {
+
+    private final LogRecordProcessor delegate;
+    private final Severity minSeverity;
+    private final Map<String, Severity> scopeMinSeverities;
+
+    // resolved min severity per scope name. UNDEFINED_SEVERITY_NUMBER stands for "no minimum"
+    private final Map<String, Severity> resolved;
+
+    SeverityLogRecordProcessor(LogRecordProcessor delegate, Severity minSeverity, Map<String, Severity> scopeMinSeverities) {
+        this.delegate = delegate;
+        this.minSeverity = minSeverity != null ? minSeverity : Severity.UNDEFINED_SEVERITY_NUMBER;
+        this.scopeMinSeverities = scopeMinSeverities;
+        this.resolved = new ConcurrentHashMap<>();
+    }
+
+    static Severity parseSeverity(String severity) {
+        return switch (severity.toLowerCase()) {
+            case "trace" -> Severity.TRACE;
+            case "debug" -> Severity.DEBUG;
+            case "info" -> Severity.INFO;
+            case "warn" -> Severity.WARN;
+            case "error" -> Severity.ERROR;
+            case "fatal" -> Severity.FATAL;
+            default -> throw new IllegalArgumentException(String.format(
+                    "Unsupported severity: '%s'. Must be one of '%s', '%s', '%s', '%s', '%s' or '%s'",
+                    severity,
+                    "trace", "debug", "info", "warn", "error", "fatal"));
+        };
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        if (accept(logRecord)) {
+            delegate.onEmit(context, logRecord);
+        }
+    }
+
+    private boolean accept(ReadWriteLogRecord logRecord) {
+        Severity severity = logRecord.getSeverity();
+        return severity == Severity.UNDEFINED_SEVERITY_NUMBER
+                || severity.getSeverityNumber() >= minSeverity(logRecord.getInstrumentationScopeInfo().getName()).getSeverityNumber();
+    }
+
+    private Severity minSeverity(String scopeName) {
+        Severity severity = resolved.get(scopeName);
+        return severity != null ? severity : resolved.computeIfAbsent(scopeName, this::findMinSeverity);
+    }
+
+    private Severity findMinSeverity(String scopeName) {
+
+        // find the longest matching scope name, moving from the scope to its parents
+        String name = scopeName;
+        while (true) {
+            Severity severity = scopeMinSeverities.get(name);
+            if (severity != null) {
+                return severity;
+            }
+
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return minSeverity;
+            }
+
+            name = name.substring(0, dot);
+        }
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "SeverityLogRecordProcessor{delegate=" + delegate + ", minSeverity=" + minSeverity + '}';
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+import io.opentelemetry.sdk.logs.data.Body;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.resources.Resource;
+
+/**
+ * A summary of suppressed duplicate log records emitted by {@link DeduplicatingLogRecordProcessor}. A copy of the
+ * first suppressed record with the summary timestamp and an extra attribute with the number of the suppressed records.
+ *
+ * @since 4.0
+ */
+class SuppressedLogRecordSummary implements ReadWriteLogRecord, LogRecordData {
+
+    private final LogRecordData sample;
+    private final long timestampEpochNanos;
+    private Attributes attributes;
+
+    SuppressedLogRecordSummary(LogRecordData sample, long suppressedCount, long timestampEpochNanos) {
+        this.sample = sample;
+        this.timestampEpochNanos = timestampEpochNanos;
+        this.attributes = sample.getAttributes()
+                .toBuilder()
+                .put(DeduplicatingLogRecordProcessor.SUPPRESSED_COUNT, suppressedCount)
+                .build();
+    }
+
+    @Override
+    public synchronized <T> ReadWriteLogRecord setAttribute(AttributeKey<T> key, T value) {
+        if (key != null && value != null) {
+            this.attributes = attributes.toBuilder().put(key, value).build();
+        }
+        return this;
+    }
+
+    @Override
+    public LogRecordData toLogRecordData() {
+        return this;
+    }
+
+    @Override
+    public <T> T getAttribute(AttributeKey<T> key) {
+        return getAttributes().get(key);
+    }
+
+    @Override
+    public Resource getResource() {
+        return sample.getResource();
+    }
+
+    @Override
+    public InstrumentationScopeInfo getInstrumentationScopeInfo() {
+        return sample.getInstrumentationScopeInfo();
+    }
+
+    @Override
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    @Override
+    public long getObservedTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    @Override
+    public SpanContext getSpanContext() {
+        return sample.getSpanContext();
+    }
+
+    @Override
+    public Severity getSeverity() {
+        return sample.getSeverity();
+    }
+
+    @Override
+    public String getSeverityText() {
+        return sample.getSeverityText();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Body getBody() {
+        return sample.getBody();
+    }
+
+    @Override
+    public Value<?> getBodyValue() {
+        return sample.getBodyValue();
+    }
+
+    @Override
+    public String getEventName() {
+        return sample.getEventName();
+    }
+
+    @Override
+    public synchronized Attributes getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public int getTotalAttributeCount() {
+        return getAttributes().size();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+
+/**
+ * A {@link LogRecordProcessor} that reduces the volume of logs correlated with unsampled traces. Records with a
+ * valid, but not sampled span context and a severity below WARN are passed to the downstream processors only for a
+ * configured fraction of traces. The decision is based on the trace id, so all the logs of a given trace are either
+ * kept or dropped together. The trace id is hashed before comparing it to the ratio, so that the decision is
+ * independent of the upstream ratio-based sampler that compares the raw lower 8 bytes of the id (otherwise the
+ * unsampled traces would be exactly the ones with the largest ids, and a ratio below the sampling ratio would keep no
+ * logs at all). The records not linked to a trace, the records of sampled traces and the records with
+ * WARN severity or above are always passed through.
+ *
+ * @since 4.0
+ */
+class TraceBasedLogRecordProcessor implements LogRecordProcessor {
+
+    private static final int MIN_ALWAYS_KEPT_SEVERITY = Severity.WARN.getSeverityNumber();
+
+    // an arbitrary constant that makes the hash unrelated to any other decision based on the trace id
+    private static final long SALT = 0x6c6f67732d726174L;
+
+    private final LogRecordProcessor delegate;
+    private final double ratio;
+    private final long idUpperBound;
+
+    TraceBasedLogRecordProcessor(LogRecordProcessor delegate, double ratio) {
+
+        if (ratio < 0. || ratio > 1.) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1: " + ratio);
+        }
+
+        this.delegate = delegate;
+        this.ratio = ratio;
+
+        this.idUpperBound = ratio == 0.
+                ? Long.MIN_VALUE
+                : ratio == 1. ? Long.MAX_VALUE : (long) (ratio * Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a non-negative hash of the full trace id mixed with a salt.
+     */
+    static long traceIdHash(String traceId) {
+        long hi = parseHex(traceId, 0);
+        long lo = parseHex(traceId, 16);
+        return mix(hi ^ mix(lo ^ SALT)) >>> 1;
+    }
+
+    private static long parseHex(String traceId, int from) {
+        long result = 0;
+        for (int i = from; i < from + 16; i++) {
+            result = (result << 4) | Character.digit(traceId.charAt(i), 16);
+        }
+        return result;
+    }
+
+    // the SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        if (accept(logRecord)) {
+            delegate.onEmit(context, logRecord);
+        }
+    }
+
+    private boolean accept(ReadWriteLogRecord logRecord) {
+
+        SpanContext spanContext = logRecord.getSpanContext();
+        if (!spanContext.isValid() || spanContext.isSampled()) {
+            return true;
+        }
+
+        if (logRecord.getSeverity().getSeverityNumber() >= MIN_ALWAYS_KEPT_SEVERITY) {
+            return true;
+        }
+
+        return traceIdHash(spanContext.getTraceId()) < idUpperBound;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "TraceBasedLogRecordProcessor{delegate=" + delegate + ", ratio=" + ratio + '}';
+    }
+}
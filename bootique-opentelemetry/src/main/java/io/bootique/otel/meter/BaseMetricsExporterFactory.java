@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Duration;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+
+/**
+ * A superclass of metrics exporter factories that supports per-exporter export interval and timeout.
+ *
+ * @since 4.0
+ */
+public abstract class BaseMetricsExporterFactory implements MetricsExporterFactory {
+
+    private Duration interval;
+    private Duration timeout;
+
+    @BQConfigProperty("""
+            Time interval between the start of two export attempts of this exporter. If not set, the meter provider
+            "exportInterval" is used.""")
+    public BaseMetricsExporterFactory setInterval(Duration interval) {
+        this.interval = interval;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max time to wait for a single export of this exporter to finish. An export that takes longer is considered
+            failed, and the next export is allowed to start. If not set, there's no timeout.""")
+    public BaseMetricsExporterFactory setTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    @Override
+    public MetricExporterHolder create() {
+        return new MetricExporterHolder(
+                createExporter(),
+                interval != null ? interval.getDuration() : null,
+                timeout != null ? timeout.getDuration() : null);
+    }
+
+    protected abstract MetricExporter createExporter();
+}
@@ -26,10 +26,10 @@ import io.opentelemetry.sdk.metrics.export.MetricExporter;
  * @since 4.0
  */
 @JsonTypeName("console")
-public class ConsoleMetricsExporterFactory implements MetricsExporterFactory {
+public class ConsoleMetricsExporterFactory extends BaseMetricsExporterFactory {
 
     @Override
-    public MetricExporter create() {
+    protected MetricExporter createExporter() {
         // No explicit shutdown. The exporter is closed by the parent MetricReader, which is in turn closed by
         // SdkMeterProvider
         return LoggingMetricExporter.create();
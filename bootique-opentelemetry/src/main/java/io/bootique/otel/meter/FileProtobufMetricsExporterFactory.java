@@ -0,0 +1,44 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.otel.file.FileExporterOutput;
+import io.bootique.otel.file.FileSegmentFormat;
+import io.bootique.otel.file.FileSegmentWriter;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import jakarta.inject.Inject;
+
+@JsonTypeName("file-protobuf")
+public class FileProtobufMetricsExporterFactory extends BaseMetricsExporterFactory {
+
+    private final FileExporterOutput output;
+
+    @Inject
+    public FileProtobufMetricsExporterFactory(FileExporterOutput output) {
+        this.output = output;
+    }
+
+    @Override
+    protected MetricExporter createExporter() {
+        // No explicit shutdown. The exporter (and its writer thread) is closed by the parent MetricReader, which is
+        // in turn closed by SdkMeterProvider
+        return new FileMetricExporter(new FileSegmentWriter(output, "metrics", FileSegmentFormat.DELIMITED_PROTOBUF));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.opentelemetry.sdk.metrics.Aggregation;
+
+/**
+ * Resolves histogram aggregation names from the "default histogram aggregation" configuration to the SDK
+ * {@link Aggregation} objects.
+ *
+ * @see <a href="https://opentelemetry.io/docs/specs/otel/metrics/sdk_exporters/otlp/#additional-environment-variable-configuration">OTLP Metrics Exporter</a>
+ * @since 4.0
+ */
+class HistogramAggregations {
+
+    static final String EXPLICIT_BUCKET_HISTOGRAM = "explicit_bucket_histogram";
+    static final String BASE2_EXPONENTIAL_BUCKET_HISTOGRAM = "base2_exponential_bucket_histogram";
+
+    // per https://opentelemetry.io/docs/specs/otel/metrics/sdk/#base2-exponential-bucket-histogram-aggregation
+    private static final int DEFAULT_MAX_BUCKETS = 160;
+    private static final int DEFAULT_MAX_SCALE = 20;
+
+    /**
+     * Returns a histogram aggregation for the name, or null if the name is null, meaning the SDK default should be
+     * used.
+     */
+    static Aggregation create(String name, Integer maxBuckets, Integer maxScale) {
+
+        if (name == null) {
+            return null;
+        }
+
+        // per spec, the values are case-insensitive
+        return switch (name.toLowerCase()) {
+            case EXPLICIT_BUCKET_HISTOGRAM -> Aggregation.explicitBucketHistogram();
+            case BASE2_EXPONENTIAL_BUCKET_HISTOGRAM -> Aggregation.base2ExponentialBucketHistogram(
+                    maxBuckets != null ? maxBuckets : DEFAULT_MAX_BUCKETS,
+                    maxScale != null ? maxScale : DEFAULT_MAX_SCALE);
+            default -> throw new IllegalArgumentException(String.format(
+                    "Unsupported default histogram aggregation: '%s'. Must be one of '%s' or '%s'",
+                    name,
+                    EXPLICIT_BUCKET_HISTOGRAM,
+                    BASE2_EXPONENTIAL_BUCKET_HISTOGRAM));
+        };
+    }
+}
@@ -21,7 +21,6 @@ package io.bootique.otel.meter;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.bootique.annotation.BQConfig;
 import io.bootique.config.PolymorphicConfiguration;
-import io.opentelemetry.sdk.metrics.export.MetricExporter;
 
 /**
  * @since 4.0
@@ -29,10 +28,10 @@ import io.opentelemetry.sdk.metrics.export.MetricExporter;
 @BQConfig
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = ConsoleMetricsExporterFactory.class)
 
-// Note the name "Metrics" (even though it creates MetricExporter).
+// Note the name "Metrics" (even though it creates MetricExporterHolder).
 // The name is derived from the OTEL_METRICS_EXPORTER var
 
 public interface MetricsExporterFactory extends PolymorphicConfiguration {
 
-    MetricExporter create();
+    MetricExporterHolder create();
 }
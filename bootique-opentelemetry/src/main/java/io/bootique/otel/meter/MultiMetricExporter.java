@@ -0,0 +1,142 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link MetricExporter} that passes the same collected metrics to multiple exporters, so that a single
+ * {@link io.opentelemetry.sdk.metrics.export.MetricReader} can serve all of them. Aggregation temporality and default
+ * aggregation are taken from the first exporter, so the exporters must agree on those (see
+ * {@link #exportKey(MetricExporter)}). The metrics are always collected as immutable data, as the reusable data would
+ * be shared by all the exporters, while any of them may still hold on to it (e.g. in an async export) when the next
+ * collection overwrites it.
+ *
+ * @since 4.0
+ */
+class MultiMetricExporter implements MetricExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiMetricExporter.class);
+
+    private final MetricExporter[] exporters;
+
+    private MultiMetricExporter(MetricExporter[] exporters) {
+        this.exporters = exporters;
+    }
+
+    static MetricExporter create(List<MetricExporter> exporters) {
+        return exporters.size() == 1
+                ? exporters.get(0)
+                : new MultiMetricExporter(exporters.toArray(new MetricExporter[0]));
+    }
+
+    /**
+     * Returns an object that describes how the exporter expects the metrics to be collected. Exporters with equal keys
+     * can share a single collection.
+     */
+    static Object exportKey(MetricExporter exporter) {
+
+        InstrumentType[] types = InstrumentType.values();
+        List<Object> key = new ArrayList<>(types.length * 2);
+
+        for (InstrumentType t : types) {
+            key.add(exporter.getAggregationTemporality(t));
+
+            // Aggregations have no "equals", but the SDK implementations have a descriptive "toString"
+            key.add(String.valueOf(exporter.getDefaultAggregation(t)));
+        }
+
+        return key;
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return exporters[0].getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return exporters[0].getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public MemoryMode getMemoryMode() {
+        return MemoryMode.IMMUTABLE_DATA;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+        List<CompletableResultCode> results = new ArrayList<>(exporters.length);
+        for (MetricExporter e : exporters) {
+            try {
+                results.add(e.export(metrics));
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Exception thrown by the export.", ex);
+                results.add(CompletableResultCode.ofFailure());
+            }
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        List<CompletableResultCode> results = new ArrayList<>(exporters.length);
+        for (MetricExporter e : exporters) {
+            try {
+                results.add(e.flush());
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Exception thrown by the flush.", ex);
+                results.add(CompletableResultCode.ofFailure());
+            }
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        List<CompletableResultCode> results = new ArrayList<>(exporters.length);
+        for (MetricExporter e : exporters) {
+            try {
+                results.add(e.shutdown());
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Exception thrown by the shutdown.", ex);
+                results.add(CompletableResultCode.ofFailure());
+            }
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    @Override
+    public String toString() {
+        return "MultiMetricExporter{exporters=" + Arrays.toString(exporters) + '}';
+    }
+}
@@ -19,7 +19,6 @@
 package io.bootique.otel.meter;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
-import io.opentelemetry.sdk.metrics.export.MetricExporter;
 
 /**
  * @since 4.0
@@ -28,7 +27,7 @@ import io.opentelemetry.sdk.metrics.export.MetricExporter;
 public class NoneMetricsExporterFactory implements MetricsExporterFactory {
 
     @Override
-    public MetricExporter create() {
+    public MetricExporterHolder create() {
         return null;
     }
 }
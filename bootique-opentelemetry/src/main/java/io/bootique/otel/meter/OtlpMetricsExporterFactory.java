@@ -19,26 +19,73 @@
 package io.bootique.otel.meter;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfigProperty;
 import io.bootique.otel.otlp.OtlpExporterEndpoint;
 import io.opentelemetry.exporter.otlp.http.metrics.OtlpHttpMetricExporter;
 import io.opentelemetry.exporter.otlp.http.metrics.OtlpHttpMetricExporterBuilder;
 import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporter;
 import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporterBuilder;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.export.AggregationTemporalitySelector;
+import io.opentelemetry.sdk.metrics.export.DefaultAggregationSelector;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import jakarta.inject.Inject;
 
 @JsonTypeName("otlp")
-public class OtlpMetricsExporterFactory implements MetricsExporterFactory {
+public class OtlpMetricsExporterFactory extends BaseMetricsExporterFactory {
+
+    private static final String TEMPORALITY_CUMULATIVE = "cumulative";
+    private static final String TEMPORALITY_DELTA = "delta";
+    private static final String TEMPORALITY_LOWMEMORY = "lowmemory";
 
     private final OtlpExporterEndpoint exporterEndpoint;
 
+    private String temporalityPreference;
+    private String defaultHistogramAggregation;
+    private Integer histogramMaxBuckets;
+    private Integer histogramMaxScale;
+
     @Inject
     public OtlpMetricsExporterFactory(OtlpExporterEndpoint exporterEndpoint) {
         this.exporterEndpoint = exporterEndpoint;
     }
 
+    @BQConfigProperty("""
+            Aggregation temporality preference. Should be one of "cumulative", "delta", "lowmemory". With "delta"
+            and "lowmemory" the SDK can release aggregation state for the attribute sets not seen during the last
+            export interval. If not specified, "cumulative" is assumed.""")
+    public OtlpMetricsExporterFactory setTemporalityPreference(String temporalityPreference) {
+        this.temporalityPreference = temporalityPreference;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Default aggregation for histogram instruments. Should be one of "explicit_bucket_histogram" or
+            "base2_exponential_bucket_histogram". If not specified, "explicit_bucket_histogram" is assumed.""")
+    public OtlpMetricsExporterFactory setDefaultHistogramAggregation(String defaultHistogramAggregation) {
+        this.defaultHistogramAggregation = defaultHistogramAggregation;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of positive and negative buckets of the "base2_exponential_bucket_histogram" aggregation.
+            The default is 160""")
+    public OtlpMetricsExporterFactory setHistogramMaxBuckets(Integer histogramMaxBuckets) {
+        this.histogramMaxBuckets = histogramMaxBuckets;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max (initial) scale of the "base2_exponential_bucket_histogram" aggregation. Must be between -10 and 20.
+            The default is 20""")
+    public OtlpMetricsExporterFactory setHistogramMaxScale(Integer histogramMaxScale) {
+        this.histogramMaxScale = histogramMaxScale;
+        return this;
+    }
+
     @Override
-    public MetricExporter create() {
+    protected MetricExporter createExporter() {
 
         // TODO: own endpoint overrides
 
@@ -56,7 +103,9 @@ public class OtlpMetricsExporterFactory implements MetricsExporterFactory {
 
             case grpc -> {
                 OtlpGrpcMetricExporterBuilder builder = OtlpGrpcMetricExporter.builder()
-                        .setEndpoint(exporterEndpoint.metricsEndpointUrl());
+                        .setEndpoint(exporterEndpoint.metricsEndpointUrl())
+                        .setAggregationTemporalitySelector(createTemporalitySelector())
+                        .setDefaultAggregationSelector(createAggregationSelector());
 
                 exporterEndpoint.headers().forEach(builder::addHeader);
                 yield builder.build();
@@ -64,11 +113,44 @@ public class OtlpMetricsExporterFactory implements MetricsExporterFactory {
 
             case http_protobuf -> {
                 OtlpHttpMetricExporterBuilder builder = OtlpHttpMetricExporter.builder()
-                        .setEndpoint(exporterEndpoint.metricsEndpointUrl());
+                        .setEndpoint(exporterEndpoint.metricsEndpointUrl())
+                        .setAggregationTemporalitySelector(createTemporalitySelector())
+                        .setDefaultAggregationSelector(createAggregationSelector());
 
                 exporterEndpoint.headers().forEach(builder::addHeader);
                 yield builder.build();
             }
         };
     }
+
+    private DefaultAggregationSelector createAggregationSelector() {
+        Aggregation histogramAggregation = HistogramAggregations.create(
+                defaultHistogramAggregation,
+                histogramMaxBuckets,
+                histogramMaxScale);
+
+        return histogramAggregation != null
+                ? DefaultAggregationSelector.getDefault().with(InstrumentType.HISTOGRAM, histogramAggregation)
+                : DefaultAggregationSelector.getDefault();
+    }
+
+    private AggregationTemporalitySelector createTemporalitySelector() {
+
+        if (temporalityPreference == null) {
+            return AggregationTemporalitySelector.alwaysCumulative();
+        }
+
+        // per spec, the values are case-insensitive
+        return switch (temporalityPreference.toLowerCase()) {
+            case TEMPORALITY_CUMULATIVE -> AggregationTemporalitySelector.alwaysCumulative();
+            case TEMPORALITY_DELTA -> AggregationTemporalitySelector.deltaPreferred();
+            case TEMPORALITY_LOWMEMORY -> AggregationTemporalitySelector.lowMemory();
+            default -> throw new IllegalArgumentException(String.format(
+                    "Unsupported metrics temporality preference: '%s'. Must be one of '%s', '%s' or '%s'",
+                    temporalityPreference,
+                    TEMPORALITY_CUMULATIVE,
+                    TEMPORALITY_DELTA,
+                    TEMPORALITY_LOWMEMORY));
+        };
+    }
 }
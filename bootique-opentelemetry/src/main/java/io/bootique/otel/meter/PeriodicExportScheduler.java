@@ -0,0 +1,78 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler for PeriodicMetricReader that shifts the start of the periodic exports, so that the exports of many app
+ * instances started at the same time are spread in time instead of arriving at the collector in synchronized waves.
+ * The first export is delayed by a random per-instance offset, and optionally aligned to the wall-clock boundary of
+ * the export interval.
+ *
+ * @since 4.0
+ */
+class PeriodicExportScheduler extends ScheduledThreadPoolExecutor {
+
+    private final long offsetNanos;
+    private final boolean alignToInterval;
+
+    PeriodicExportScheduler(long offsetNanos, boolean alignToInterval) {
+        super(1, r -> {
+            Thread t = new Thread(r, "PeriodicMetricReader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.offsetNanos = offsetNanos;
+        this.alignToInterval = alignToInterval;
+    }
+
+    static PeriodicExportScheduler create(java.time.Duration startJitter, boolean alignToInterval) {
+        long jitterNanos = startJitter != null ? startJitter.toNanos() : 0;
+        long offsetNanos = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0;
+        return new PeriodicExportScheduler(offsetNanos, alignToInterval);
+    }
+
+    static long initialDelayNanos(long initialDelayNanos, long periodNanos, long offsetNanos, boolean alignToInterval, long epochNanos) {
+        if (!alignToInterval || periodNanos <= 0) {
+            return initialDelayNanos + offsetNanos;
+        }
+
+        // start at the next wall-clock interval boundary. The instances with synchronized clocks will export at the
+        // same points in time, shifted by their individual offsets
+        return periodNanos - Math.floorMod(epochNanos, periodNanos) + offsetNanos;
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        long periodNanos = unit.toNanos(period);
+        long delayNanos = initialDelayNanos(
+                unit.toNanos(initialDelay),
+                periodNanos,
+                offsetNanos,
+                alignToInterval,
+                TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+
+        return super.scheduleAtFixedRate(command, delayNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -22,16 +22,26 @@ import io.bootique.annotation.BQConfig;
 import io.bootique.annotation.BQConfigProperty;
 import io.bootique.shutdown.ShutdownManager;
 import io.bootique.value.Duration;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
+import io.opentelemetry.sdk.metrics.View;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import io.opentelemetry.sdk.metrics.export.MetricReader;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 import jakarta.inject.Inject;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * @since 4.0
@@ -43,13 +53,21 @@ public class SdkMeterProviderFactory {
 
     private Duration exportInterval;
     private List<MetricsExporterFactory> exporters;
+    private Boolean fanOut;
+    private Duration exportJitter;
+    private Boolean alignToInterval;
+    private String defaultHistogramAggregation;
+    private Integer histogramMaxBuckets;
+    private Integer histogramMaxScale;
 
     @Inject
     public SdkMeterProviderFactory(ShutdownManager shutdownManager) {
         this.shutdownManager = shutdownManager;
     }
 
-    @BQConfigProperty("Time interval between the start of two export attempts. The default is '1min'")
+    @BQConfigProperty("""
+            Time interval between the start of two export attempts. Applies to the exporters that don't define their
+            own "interval". The default is '1min'""")
     public SdkMeterProviderFactory setExportInterval(Duration exportInterval) {
         this.exportInterval = exportInterval;
         return this;
@@ -61,24 +79,126 @@ public class SdkMeterProviderFactory {
         return this;
     }
 
+    @BQConfigProperty("""
+            If true, exporters share a single metric reader, so each instrument is collected and aggregated once per
+            interval, and the result is passed to all exporters. Exporters that differ in aggregation temporality or
+            default aggregation are still collected separately. A shared collection always produces immutable data,
+            even if the exporters support reusable data. The default is 'false'.""")
+    public SdkMeterProviderFactory setFanOut(Boolean fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max random delay of the first export. Each metric reader picks its own offset within this range and keeps
+            it for the subsequent exports, so that the exports of many app instances started at the same time are
+            spread in time. If not set, there's no jitter.""")
+    public SdkMeterProviderFactory setExportJitter(Duration exportJitter) {
+        this.exportJitter = exportJitter;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, exports are aligned to the wall-clock boundaries of the export interval (e.g. to the start of each
+            minute for a '1min' interval), shifted by a random offset within "exportJitter". The default is 'false'.""")
+    public SdkMeterProviderFactory setAlignToInterval(Boolean alignToInterval) {
+        this.alignToInterval = alignToInterval;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Aggregation for histogram instruments applied to all exporters. Should be one of
+            "explicit_bucket_histogram" or "base2_exponential_bucket_histogram". Takes precedence over the exporter
+            default aggregation and over the bucket boundaries advised by instruments. If not specified, each
+            exporter's default is used.""")
+    public SdkMeterProviderFactory setDefaultHistogramAggregation(String defaultHistogramAggregation) {
+        this.defaultHistogramAggregation = defaultHistogramAggregation;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of positive and negative buckets of the "base2_exponential_bucket_histogram" aggregation.
+            The default is 160""")
+    public SdkMeterProviderFactory setHistogramMaxBuckets(Integer histogramMaxBuckets) {
+        this.histogramMaxBuckets = histogramMaxBuckets;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max (initial) scale of the "base2_exponential_bucket_histogram" aggregation. Must be between -10 and 20.
+            The default is 20""")
+    public SdkMeterProviderFactory setHistogramMaxScale(Integer histogramMaxScale) {
+        this.histogramMaxScale = histogramMaxScale;
+        return this;
+    }
+
+    /**
+     * Returns true if all the configured exporters are "none", so the provider created by this factory would collect
+     * the metrics just to throw them away. In this case a no-op provider should be used instead.
+     */
+    public boolean isNoop() {
+        return exporters != null
+                && !exporters.isEmpty()
+                && exporters.stream().allMatch(e -> e instanceof NoneMetricsExporterFactory);
+    }
+
     public SdkMeterProvider create(Resource resource) {
+        return create(resource, Clock.getDefault());
+    }
+
+    public SdkMeterProvider create(Resource resource, Clock clock) {
         SdkMeterProviderBuilder builder = SdkMeterProvider
                 .builder()
-                .setResource(resource);
+                .setResource(resource)
+                .setClock(clock);
 
-        // TODO: clock
         // TODO: views
         // TODO: exemplar filter
 
+        Aggregation histogramAggregation = HistogramAggregations.create(
+                defaultHistogramAggregation,
+                histogramMaxBuckets,
+                histogramMaxScale);
+
+        if (histogramAggregation != null) {
+            builder.registerView(
+                    InstrumentSelector.builder().setType(InstrumentType.HISTOGRAM).build(),
+                    View.builder().setAggregation(histogramAggregation).build());
+        }
+
         createMetricReaders().forEach(builder::registerMetricReader);
         return shutdownManager.onShutdown(builder.build());
     }
 
     private List<MetricReader> createMetricReaders() {
-        return createMetricExporters().stream().map(this::createMetricReader).toList();
+
+        List<MetricExporterHolder> exporters = createMetricExporters();
+        if (fanOut == null || !fanOut || exporters.size() < 2) {
+            return exporters.stream()
+                    .map(h -> createMetricReader(h.exporter(), h.interval(), h.timeout()))
+                    .toList();
+        }
+
+        // group the exporters that can share a collection, preserving the order of the exporters
+        Map<List<Object>, List<MetricExporterHolder>> groups = new LinkedHashMap<>();
+        for (MetricExporterHolder h : exporters) {
+            List<Object> key = Arrays.asList(
+                    MultiMetricExporter.exportKey(h.exporter()),
+                    getExportIntervalOrDefault(h.interval()),
+                    h.timeout());
+
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(h);
+        }
+
+        return groups.values().stream()
+                .map(g -> createMetricReader(
+                        MultiMetricExporter.create(g.stream().map(MetricExporterHolder::exporter).toList()),
+                        g.get(0).interval(),
+                        g.get(0).timeout()))
+                .toList();
     }
 
-    private List<MetricExporter> createMetricExporters() {
+    private List<MetricExporterHolder> createMetricExporters() {
 
         // unlike the agent whose default is "otlp", our default will be "console", so that the app could
         // work standalone out of the box. To suppress exporting, an explicit "none" exporter should be set
@@ -96,14 +216,37 @@ public class SdkMeterProviderFactory {
                 .toList();
     }
 
-    private MetricReader createMetricReader(MetricExporter exporter) {
+    private MetricReader createMetricReader(MetricExporter exporter, java.time.Duration interval, java.time.Duration timeout) {
+
         // No explicit shutdown. The reader is closed by the parent SdkMeterProvider
-        return PeriodicMetricReader.builder(exporter)
-                .setInterval(getMetricExportIntervalOrDefault())
+
+        boolean align = alignToInterval != null && alignToInterval;
+        if (timeout == null && exportJitter == null && !align) {
+            return PeriodicMetricReader.builder(exporter)
+                    .setInterval(getExportIntervalOrDefault(interval))
+                    .build();
+        }
+
+        // the timeout tracker shares the scheduler with the reader. The scheduler is shut down by the reader
+        ScheduledExecutorService scheduler = PeriodicExportScheduler.create(
+                exportJitter != null ? exportJitter.getDuration() : null,
+                align);
+
+        MetricExporter readerExporter = timeout != null
+                ? new TimeoutMetricExporter(exporter, timeout, scheduler)
+                : exporter;
+
+        return PeriodicMetricReader.builder(readerExporter)
+                .setInterval(getExportIntervalOrDefault(interval))
+                .setExecutor(scheduler)
                 .build();
     }
 
-    private java.time.Duration getMetricExportIntervalOrDefault() {
+    private java.time.Duration getExportIntervalOrDefault(java.time.Duration interval) {
+        if (interval != null) {
+            return interval;
+        }
+
         return this.exportInterval != null
                 ? this.exportInterval.getDuration()
                 : java.time.Duration.ofMinutes(1);
@@ -0,0 +1,124 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link MetricExporter} wrapper that fails an export that didn't complete within the timeout. PeriodicMetricReader
+ * doesn't start a new export until the previous one is complete, so without a timeout, a hanging export would block
+ * all the subsequent ones.
+ *
+ * @since 4.0
+ */
+class TimeoutMetricExporter implements MetricExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeoutMetricExporter.class);
+
+    private final MetricExporter delegate;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService scheduler;
+
+    TimeoutMetricExporter(MetricExporter delegate, Duration timeout, ScheduledExecutorService scheduler) {
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return delegate.getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return delegate.getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public MemoryMode getMemoryMode() {
+        return delegate.getMemoryMode();
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+
+        CompletableResultCode result = delegate.export(metrics);
+        if (result.isDone()) {
+            return result;
+        }
+
+        CompletableResultCode boundedResult = new CompletableResultCode();
+        result.whenComplete(() -> {
+            if (result.isSuccess()) {
+                boundedResult.succeed();
+            } else {
+                boundedResult.fail();
+            }
+        });
+
+        ScheduledFuture<?> timeoutFuture;
+        try {
+            timeoutFuture = scheduler.schedule(() -> {
+                if (!boundedResult.isDone()) {
+                    LOGGER.warn("Metrics export timed out after {} ms: {}", TimeUnit.NANOSECONDS.toMillis(timeoutNanos), delegate);
+                    boundedResult.fail();
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+
+            // the scheduler is already stopped, which happens on the final export on shutdown. The reader will
+            // apply its own shutdown timeout to this export
+            return result;
+        }
+
+        boundedResult.whenComplete(() -> timeoutFuture.cancel(false));
+        return boundedResult;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "TimeoutMetricExporter{delegate=" + delegate + ", timeoutNanos=" + timeoutNanos + '}';
+    }
+}
@@ -67,12 +67,13 @@ public class OtlpExporterEndpointFactory {
 
         // TODO: timeout (OTEL_EXPORTER_OTLP_TIMEOUT)
 
-        OtlpProtocol protocol = switch (this.protocol) {
+        String protocolName = this.protocol != null ? this.protocol : PROTOCOL_HTTP_PROTOBUF;
+        OtlpProtocol protocol = switch (protocolName) {
             case PROTOCOL_GRPC -> OtlpProtocol.grpc;
             case PROTOCOL_HTTP_PROTOBUF -> OtlpProtocol.http_protobuf;
             default -> throw new IllegalArgumentException(String.format(
                     "Unsupported OTLP protocol: '%s'. Must be one of '%s' or '%s'",
-                    this.protocol,
+                    protocolName,
                     PROTOCOL_GRPC,
                     PROTOCOL_HTTP_PROTOBUF));
         };
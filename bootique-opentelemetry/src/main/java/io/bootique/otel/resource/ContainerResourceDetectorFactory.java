@@ -0,0 +1,88 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.resources.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detects "container.id" attribute of a Linux container, looking for the id in "/proc/self/cgroup" (cgroup v1) or
+ * "/proc/self/mountinfo" (cgroup v2). Produces no attributes outside a container. The id is never cached, as a
+ * recreated container may share the cache file with its predecessor.
+ */
+@JsonTypeName("container")
+public class ContainerResourceDetectorFactory implements ResourceDetectorFactory {
+
+    static final AttributeKey<String> CONTAINER_ID = AttributeKey.stringKey("container.id");
+
+    private static final Path CGROUP = Path.of("/proc/self/cgroup");
+    private static final Path MOUNTINFO = Path.of("/proc/self/mountinfo");
+
+    // e.g. "0::/system.slice/docker-<id>.scope" or "12:cpu:/docker/<id>"
+    private static final Pattern CGROUP_ID = Pattern.compile("[/-]([0-9a-f]{64})(?:\\.scope)?$");
+
+    // e.g. ".../docker/containers/<id>/hostname ..." (the path of the "/etc/hostname" mount)
+    private static final Pattern MOUNTINFO_ID = Pattern.compile("/containers/([0-9a-f]{64})/");
+
+    @Override
+    public ResourceDetector create() {
+        return ResourceDetector.nonCacheable(ContainerResourceDetectorFactory::detect);
+    }
+
+    static Resource detect() throws IOException {
+        String id = findId(readLines(CGROUP), CGROUP_ID);
+        if (id == null) {
+            id = findId(readLines(MOUNTINFO), MOUNTINFO_ID);
+        }
+
+        return id != null ? Resource.create(Attributes.of(CONTAINER_ID, id)) : Resource.empty();
+    }
+
+    private static String findId(List<String> lines, Pattern pattern) {
+        for (String line : lines) {
+            Matcher m = pattern.matcher(line);
+            if (m.find()) {
+                return m.group(1);
+            }
+        }
+
+        return null;
+    }
+
+    static String findCgroupId(List<String> lines) {
+        return findId(lines, CGROUP_ID);
+    }
+
+    static String findMountinfoId(List<String> lines) {
+        return findId(lines, MOUNTINFO_ID);
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        return Files.isReadable(file) ? Files.readAllLines(file) : List.of();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.resources.Resource;
+
+import java.net.InetAddress;
+
+/**
+ * Detects "host.name" and "host.arch" attributes. These are never cached, as the cache file may be on a volume shared
+ * between the hosts.
+ */
+@JsonTypeName("host")
+public class HostResourceDetectorFactory implements ResourceDetectorFactory {
+
+    static final AttributeKey<String> HOST_NAME = AttributeKey.stringKey("host.name");
+    static final AttributeKey<String> HOST_ARCH = AttributeKey.stringKey("host.arch");
+
+    @Override
+    public ResourceDetector create() {
+        return ResourceDetector.nonCacheable(HostResourceDetectorFactory::detect);
+    }
+
+    static Resource detect() throws Exception {
+
+        // this may involve a DNS lookup, which is what makes it slow on some hosts
+        String name = InetAddress.getLocalHost().getHostName();
+
+        return Resource.create(Attributes.of(HOST_NAME, name, HOST_ARCH, arch(System.getProperty("os.arch"))));
+    }
+
+    // per https://opentelemetry.io/docs/specs/semconv/resource/host/
+    static String arch(String osArch) {
+        return switch (osArch) {
+            case "amd64", "x86_64" -> "amd64";
+            case "aarch64", "arm64" -> "arm64";
+            case "x86", "i386", "i486", "i586", "i686" -> "x86";
+            case "ppc64" -> "ppc64";
+            case "s390x" -> "s390x";
+            default -> osArch;
+        };
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.resources.Resource;
+
+/**
+ * Detects "os.type" and "os.description" attributes.
+ */
+@JsonTypeName("os")
+public class OsResourceDetectorFactory implements ResourceDetectorFactory {
+
+    static final AttributeKey<String> OS_TYPE = AttributeKey.stringKey("os.type");
+    static final AttributeKey<String> OS_DESCRIPTION = AttributeKey.stringKey("os.description");
+
+    @Override
+    public ResourceDetector create() {
+        return OsResourceDetectorFactory::detect;
+    }
+
+    static Resource detect() {
+        String name = System.getProperty("os.name");
+        String version = System.getProperty("os.version");
+        return Resource.create(Attributes.of(OS_TYPE, type(name), OS_DESCRIPTION, name + " " + version));
+    }
+
+    // per https://opentelemetry.io/docs/specs/semconv/resource/os/
+    static String type(String osName) {
+        String name = osName.toLowerCase();
+        if (name.startsWith("windows")) {
+            return "windows";
+        } else if (name.startsWith("linux")) {
+            return "linux";
+        } else if (name.startsWith("mac")) {
+            return "darwin";
+        } else if (name.startsWith("freebsd")) {
+            return "freebsd";
+        } else if (name.startsWith("sunos")) {
+            return "solaris";
+        } else if (name.startsWith("aix")) {
+            return "aix";
+        } else {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.resources.Resource;
+
+import java.nio.file.Path;
+
+/**
+ * Detects "process.pid", "process.executable.path" and "process.runtime.*" attributes. These change on every app
+ * start, so they are never cached.
+ */
+@JsonTypeName("process")
+public class ProcessResourceDetectorFactory implements ResourceDetectorFactory {
+
+    static final AttributeKey<Long> PROCESS_PID = AttributeKey.longKey("process.pid");
+    static final AttributeKey<String> PROCESS_EXECUTABLE_PATH = AttributeKey.stringKey("process.executable.path");
+    static final AttributeKey<String> PROCESS_RUNTIME_NAME = AttributeKey.stringKey("process.runtime.name");
+    static final AttributeKey<String> PROCESS_RUNTIME_VERSION = AttributeKey.stringKey("process.runtime.version");
+    static final AttributeKey<String> PROCESS_RUNTIME_DESCRIPTION = AttributeKey.stringKey("process.runtime.description");
+
+    @Override
+    public ResourceDetector create() {
+        return ResourceDetector.nonCacheable(ProcessResourceDetectorFactory::detect);
+    }
+
+    static Resource detect() {
+        return Resource.create(Attributes.builder()
+                .put(PROCESS_PID, ProcessHandle.current().pid())
+                .put(PROCESS_EXECUTABLE_PATH, Path.of(System.getProperty("java.home"), "bin", "java").toString())
+                .put(PROCESS_RUNTIME_NAME, System.getProperty("java.runtime.name"))
+                .put(PROCESS_RUNTIME_VERSION, System.getProperty("java.runtime.version"))
+                .put(PROCESS_RUNTIME_DESCRIPTION, System.getProperty("java.vm.vendor")
+                        + " " + System.getProperty("java.vm.name")
+                        + " " + System.getProperty("java.vm.version"))
+                .build());
+    }
+}
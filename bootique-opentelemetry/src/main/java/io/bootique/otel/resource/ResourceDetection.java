@@ -0,0 +1,203 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import io.opentelemetry.api.common.AttributeType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.sdk.resources.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs resource detectors in parallel, waiting for them no longer than the configured timeout. Detectors that didn't
+ * finish in time are ignored. If a cache file is configured, and exists, the attributes of the cacheable detectors are
+ * taken from the cache, and only the non-cacheable detectors are waited for. The cache is refreshed in the background
+ * when the cacheable detectors finish.
+ *
+ * @since 4.0
+ */
+class ResourceDetection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceDetection.class);
+
+    private final List<ResourceDetector> detectors;
+    private final Duration timeout;
+    private final Path cacheFile;
+
+    ResourceDetection(List<ResourceDetector> detectors, Duration timeout, Path cacheFile) {
+        this.detectors = detectors;
+        this.timeout = timeout;
+        this.cacheFile = cacheFile;
+    }
+
+    Resource detect() {
+
+        if (detectors.isEmpty()) {
+            return Resource.empty();
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        int len = detectors.size();
+        List<CompletableFuture<Resource>> results = new ArrayList<>(len);
+        for (ResourceDetector d : detectors) {
+            results.add(start(d));
+        }
+
+        Resource cached = cacheFile != null ? readCache() : null;
+        if (cacheFile != null) {
+            refreshCacheWhenDone(results);
+        }
+
+        Resource resource = cached != null ? cached : Resource.empty();
+        for (int i = 0; i < len; i++) {
+
+            // with a cache present, only wait for the attributes that can't come from the cache
+            if (cached == null || !detectors.get(i).isCacheable()) {
+                Resource r = await(detectors.get(i), results.get(i), deadline);
+                if (r != null) {
+                    resource = resource.merge(r);
+                }
+            }
+        }
+
+        return resource;
+    }
+
+    private CompletableFuture<Resource> start(ResourceDetector detector) {
+
+        CompletableFuture<Resource> result = new CompletableFuture<>();
+
+        // using a dedicated daemon thread per detector instead of a pool, so that a detector stuck on IO can neither
+        // delay other detectors nor block the app shutdown
+        Thread t = new Thread(() -> {
+            try {
+                result.complete(detector.detect());
+            } catch (Throwable th) {
+                result.completeExceptionally(th);
+            }
+        }, "otel-resource-detector");
+        t.setDaemon(true);
+        t.start();
+
+        return result;
+    }
+
+    private Resource await(ResourceDetector detector, CompletableFuture<Resource> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warn("Resource detector {} did not finish in {} ms, ignoring", detector, timeout.toMillis());
+            return null;
+        } catch (ExecutionException e) {
+            LOGGER.warn("Resource detector {} failed, ignoring", detector, e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void refreshCacheWhenDone(List<CompletableFuture<Resource>> results) {
+
+        List<CompletableFuture<Resource>> cacheable = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (detectors.get(i).isCacheable()) {
+
+                // failed detectors are simply not cached
+                cacheable.add(results.get(i).exceptionally(th -> Resource.empty()));
+            }
+        }
+
+        if (!cacheable.isEmpty()) {
+            CompletableFuture.allOf(cacheable.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+                Resource resource = Resource.empty();
+                for (CompletableFuture<Resource> r : cacheable) {
+                    resource = resource.merge(r.join());
+                }
+                writeCache(resource);
+            });
+        }
+    }
+
+    private Resource readCache() {
+
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        } catch (IOException e) {
+            LOGGER.warn("Error reading resource cache file {}, ignoring", cacheFile, e);
+            return null;
+        }
+
+        AttributesBuilder attributes = Attributes.builder();
+        for (String k : properties.stringPropertyNames()) {
+            attributes.put(k, properties.getProperty(k));
+        }
+
+        return Resource.create(attributes.build());
+    }
+
+    private void writeCache(Resource resource) {
+
+        Properties properties = new Properties();
+        resource.getAttributes().forEach((k, v) -> {
+
+            // the cache is untyped, so only caching strings, which are the vast majority of the resource attributes
+            if (k.getType() == AttributeType.STRING) {
+                properties.setProperty(k.getKey(), (String) v);
+            }
+        });
+
+        try {
+            Path dir = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+
+            // write and rename, so that a concurrently starting app never sees a partially written file
+            Path tmp = Files.createTempFile(dir, cacheFile.getFileName().toString(), ".tmp");
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(out, "OpenTelemetry resource attributes");
+            }
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Error writing resource cache file {}", cacheFile, e);
+        }
+    }
+}
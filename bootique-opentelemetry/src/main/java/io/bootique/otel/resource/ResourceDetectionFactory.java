@@ -0,0 +1,74 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Duration;
+import io.opentelemetry.sdk.resources.Resource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Detection of the resource attributes describing the host, the OS, the process, etc.")
+public class ResourceDetectionFactory {
+
+    private static final java.time.Duration DEFAULT_TIMEOUT = java.time.Duration.ofMillis(500);
+
+    private List<ResourceDetectorFactory> detectors;
+    private Duration timeout;
+    private String cacheFile;
+
+    @BQConfigProperty("""
+            A list of resource detectors, each one identified by its "type". The built-in types are "host", "os",
+            "process" and "container". Detectors run in parallel. If detectors produce the same attribute, the
+            detector listed later wins.""")
+    public ResourceDetectionFactory setDetectors(List<ResourceDetectorFactory> detectors) {
+        this.detectors = detectors;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max time the app startup waits for the detectors. Attributes of the detectors that didn't finish in time
+            are omitted. The default is "500ms".""")
+    public ResourceDetectionFactory setTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            An optional file to cache the string attributes of the detectors that don't change between restarts. Of
+            the built-in detectors only "os" is cached ("host", "process" and "container" are always detected live, as
+            the cache file may outlive the process or be shared between containers and hosts). If the file exists, the
+            cached attributes are used right away, and the file is refreshed in the background.""")
+    public ResourceDetectionFactory setCacheFile(String cacheFile) {
+        this.cacheFile = cacheFile;
+        return this;
+    }
+
+    public Resource detect() {
+        return new ResourceDetection(
+                detectors != null ? detectors.stream().map(ResourceDetectorFactory::create).toList() : List.of(),
+                timeout != null ? timeout.getDuration() : DEFAULT_TIMEOUT,
+                cacheFile != null ? Path.of(cacheFile) : null).detect();
+    }
+}
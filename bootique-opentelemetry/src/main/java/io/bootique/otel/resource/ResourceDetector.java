@@ -0,0 +1,62 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import io.opentelemetry.sdk.resources.Resource;
+
+/**
+ * Detects a group of resource attributes describing the environment the app runs in.
+ *
+ * @since 4.0
+ */
+public interface ResourceDetector {
+
+    Resource detect() throws Exception;
+
+    /**
+     * Returns whether the detected attributes stay the same across the app restarts on the same host, so that they
+     * can be cached between the restarts. Only the string attributes are cached.
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * Wraps a detector, so that its attributes are never cached.
+     */
+    static ResourceDetector nonCacheable(ResourceDetector detector) {
+        return new ResourceDetector() {
+
+            @Override
+            public Resource detect() throws Exception {
+                return detector.detect();
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return false;
+            }
+
+            @Override
+            public String toString() {
+                return detector.toString();
+            }
+        };
+    }
+}
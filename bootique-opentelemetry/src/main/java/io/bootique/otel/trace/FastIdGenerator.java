@@ -0,0 +1,72 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.trace;
+
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.sdk.trace.IdGenerator;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An {@link IdGenerator} producing random ids from the per-thread {@link ThreadLocalRandom} accessed directly, so
+ * there's no contention between the threads. Span ids (generated for every span) are encoded with {@link HexFormat}
+ * that builds the String straight from its byte array, with no thread-local char buffer and no copying. Trace ids
+ * (generated for root spans only) use the SDK encoding, as it allocates less for the 32-char ids.
+ *
+ * @since 4.0
+ */
+class FastIdGenerator implements IdGenerator {
+
+    static final FastIdGenerator INSTANCE = new FastIdGenerator();
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Override
+    public String generateSpanId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // all zeros is an invalid id
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0);
+
+        return HEX.toHexDigits(id);
+    }
+
+    @Override
+    public String generateTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // same as the SDK generator, only checking the low part to ensure the id is not all zeros
+        long hi = random.nextLong();
+        long lo;
+        do {
+            lo = random.nextLong();
+        } while (lo == 0);
+
+        return TraceId.fromLongs(hi, lo);
+    }
+
+    @Override
+    public String toString() {
+        return "FastIdGenerator{}";
+    }
+}
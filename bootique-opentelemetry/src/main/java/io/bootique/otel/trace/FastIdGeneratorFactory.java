@@ -0,0 +1,37 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.trace;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.opentelemetry.sdk.trace.IdGenerator;
+
+/**
+ * A random id generator for the high span rates. Produces the same kind of ids as the "random" generator, but
+ * generates span ids faster.
+ *
+ * @since 4.0
+ */
+@JsonTypeName("fast")
+public class FastIdGeneratorFactory implements IdGeneratorFactory {
+
+    @Override
+    public IdGenerator create() {
+        return FastIdGenerator.INSTANCE;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.trace;
+
+import io.bootique.otel.OpenTelemetryModule;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A {@link SpanProcessor} that routes ended sampled spans between two independent processing lanes. The spans go to
+ * the "regular" lane while it has capacity. When it is full, the spans with the "error" status go to a small
+ * "priority" lane instead of being dropped. Each lane has its own queue and export thread, so when the regular lane is
+ * overwhelmed, the error spans are still exported. Each lane caps the number of spans waiting for the export and
+ * counts the spans dropped over its capacity in the "span.lane.dropped" metric.
+ * <p>The span status is only checked when the regular lane is full, as {@link ReadableSpan} doesn't expose it, and
+ * reading it requires a span snapshot.
+ * <p>Each lane exports via its own exporter instance, so a slow or stuck export in the regular lane never delays
+ * the priority lane.
+ *
+ * @since 4.0
+ */
+class PrioritySpanProcessor implements SpanProcessor {
+
+    static final String DROPPED_COUNTER_NAME = "span.lane.dropped";
+    static final AttributeKey<String> LANE = AttributeKey.stringKey("lane");
+
+    private final Lane priority;
+    private final Lane regular;
+
+    /**
+     * @param exporterFactory  creates an exporter for a lane. Called once per lane
+     * @param processorFactory creates a lane processor (normally a batch processor) for a given exporter and queue
+     *                         capacity
+     */
+    PrioritySpanProcessor(
+            MeterProvider meterProvider,
+            int priorityCapacity,
+            int regularCapacity,
+            Supplier<SpanExporter> exporterFactory,
+            BiFunction<SpanExporter, Integer, SpanProcessor> processorFactory) {
+
+        LongCounter dropped = meterProvider
+                .get(OpenTelemetryModule.METER_NAME)
+                .counterBuilder(DROPPED_COUNTER_NAME)
+                .setDescription("The number of spans dropped because the lane queue was full")
+                .setUnit("{span}")
+                .build();
+
+        this.priority = new Lane("priority", priorityCapacity, exporterFactory.get(), processorFactory, dropped);
+        this.regular = new Lane("regular", regularCapacity, exporterFactory.get(), processorFactory, dropped);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        // the batch processors ignore span start
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+
+        // the batch processors only export the sampled spans, so the rest should not take up lane capacity
+        if (!span.getSpanContext().isSampled()) {
+            return;
+        }
+
+        if (regular.offer(span)) {
+            return;
+        }
+
+        if (span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR) {
+            if (!priority.offer(span)) {
+                priority.drop();
+            }
+        } else {
+            regular.drop();
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofAll(List.of(priority.processor.shutdown(), regular.processor.shutdown()));
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofAll(List.of(priority.processor.forceFlush(), regular.processor.forceFlush()));
+    }
+
+    @Override
+    public String toString() {
+        return "PrioritySpanProcessor{priority=" + priority.processor + ", regular=" + regular.processor + '}';
+    }
+
+    // "queued" is incremented when a span is accepted and decremented when the span reaches the exporter. So it is
+    // never less than the size of the processor queue, and the processor itself never drops the spans
+    private static class Lane {
+
+        final SpanProcessor processor;
+        final int capacity;
+        final AtomicInteger queued;
+        final LongCounter dropped;
+        final Attributes attributes;
+
+        Lane(
+                String name,
+                int capacity,
+                SpanExporter exporter,
+                BiFunction<SpanExporter, Integer, SpanProcessor> processorFactory,
+                LongCounter dropped) {
+
+            this.capacity = capacity;
+            this.queued = new AtomicInteger();
+            this.dropped = dropped;
+            this.attributes = Attributes.of(LANE, name);
+            this.processor = processorFactory.apply(new DequeuingExporter(exporter, queued), capacity);
+        }
+
+        boolean offer(ReadableSpan span) {
+            if (queued.incrementAndGet() > capacity) {
+                queued.decrementAndGet();
+                return false;
+            }
+
+            processor.onEnd(span);
+            return true;
+        }
+
+        void drop() {
+            dropped.add(1, attributes);
+        }
+    }
+
+    private record DequeuingExporter(SpanExporter delegate, AtomicInteger queued) implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            queued.addAndGet(-spans.size());
+            return delegate.export(spans);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -20,9 +20,11 @@ package io.bootique.otel.trace;
 
 import io.bootique.annotation.BQConfig;
 import io.bootique.annotation.BQConfigProperty;
+import io.bootique.otel.internal.ScheduleDelayJitter;
 import io.bootique.shutdown.ShutdownManager;
 import io.bootique.value.Duration;
 import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
@@ -44,9 +46,20 @@ import java.util.function.Supplier;
 @BQConfig
 public class SdkTracerProviderFactory {
 
+    // per https://opentelemetry.io/docs/languages/java/configuration/#properties-traces
+    private static final int DEFAULT_MAX_QUEUE_SIZE = 2048;
+    private static final int DEFAULT_MAX_EXPORT_BATCH_SIZE = 512;
+
     private final ShutdownManager shutdownManager;
 
     private Duration scheduleDelay;
+    private Duration exportJitter;
+    private Integer maxQueueSize;
+    private Integer maxExportBatchSize;
+    private Duration exportTimeout;
+    private Boolean recordExportDuration;
+    private Integer priorityQueueSize;
+    private IdGeneratorFactory idGenerator;
     private List<TracesExporterFactory> exporters;
 
     @Inject
@@ -60,30 +73,124 @@ public class SdkTracerProviderFactory {
         return this;
     }
 
+    @BQConfigProperty("""
+            Max random amount added to "scheduleDelay" of the batch processor. The amount is picked once per processor
+            and extends every interval between the exports, so that the exports of many app instances started at the
+            same time drift apart instead of arriving at the collector in synchronized waves. If not set, there's no
+            jitter.""")
+    public SdkTracerProviderFactory setExportJitter(Duration exportJitter) {
+        this.exportJitter = exportJitter;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of spans kept in the batch processor queue. When the queue is full, new spans are dropped. The
+            default is 2048""")
+    public SdkTracerProviderFactory setMaxQueueSize(Integer maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Max number of spans sent to the exporters in a single batch. Must be less than or equal to
+            "maxQueueSize". The default is 512""")
+    public SdkTracerProviderFactory setMaxExportBatchSize(Integer maxExportBatchSize) {
+        this.maxExportBatchSize = maxExportBatchSize;
+        return this;
+    }
+
+    @BQConfigProperty("Max time to wait for a single batch export to finish. The default is '30sec'")
+    public SdkTracerProviderFactory setExportTimeout(Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If true, the duration of each batch export is recorded in the "span.export.duration" histogram, broken
+            down by the "outcome" ("success" or "failure"). Always enabled by the "otel-load" command. The default is
+            'false'.""")
+    public SdkTracerProviderFactory setRecordExportDuration(Boolean recordExportDuration) {
+        this.recordExportDuration = recordExportDuration;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            If set, enables a separate "priority" batch processor with the queue of this size. When the regular queue
+            is full, the spans with the "error" status go to the priority processor instead of being dropped. It has
+            its own export thread and its own instances of the exporters, so the error spans are not delayed by slow
+            regular exports. The number of spans dropped by each lane is reported in the "span.lane.dropped" metric.
+            If not set, all spans are processed by a single batch processor.""")
+    public SdkTracerProviderFactory setPriorityQueueSize(Integer priorityQueueSize) {
+        this.priorityQueueSize = priorityQueueSize;
+        return this;
+    }
+
+    @BQConfigProperty("""
+            Generator of the trace and span ids. The default "random" is the SDK generator. "fast" produces the same
+            kind of random ids, but generates span ids faster. Custom generators can be added as
+            IdGeneratorFactory implementations.""")
+    public SdkTracerProviderFactory setIdGenerator(IdGeneratorFactory idGenerator) {
+        this.idGenerator = idGenerator;
+        return this;
+    }
+
     @BQConfigProperty
     public SdkTracerProviderFactory setExporters(List<TracesExporterFactory> exporters) {
         this.exporters = exporters;
         return this;
     }
 
+    /**
+     * Returns true if all the configured exporters are "none", so the provider created by this factory would record
+     * the spans just to throw them away. In this case a no-op provider should be used instead.
+     */
+    public boolean isNoop() {
+        return exporters != null
+                && !exporters.isEmpty()
+                && exporters.stream().allMatch(e -> e instanceof NoneTracesExporterFactory);
+    }
+
     public SdkTracerProvider create(Resource resource, MeterProvider meterProvider) {
+        return create(resource, meterProvider, Clock.getDefault());
+    }
+
+    public SdkTracerProvider create(Resource resource, MeterProvider meterProvider, Clock clock) {
+        return create(resource, meterProvider, clock, false);
+    }
+
+    /**
+     * Creates the provider, recording the export durations if either "recordExportDuration" is enabled in the
+     * configuration, or "forceRecordExportDuration" is true.
+     */
+    public SdkTracerProvider create(
+            Resource resource,
+            MeterProvider meterProvider,
+            Clock clock,
+            boolean forceRecordExportDuration) {
+
+        boolean timed = forceRecordExportDuration || (recordExportDuration != null && recordExportDuration);
 
         Supplier<MeterProvider> meterProviderSupplier = () -> meterProvider;
 
         SdkTracerProviderBuilder builder = SdkTracerProvider
                 .builder()
                 .setResource(resource)
+                .setClock(clock)
                 .setMeterProvider(meterProviderSupplier);
 
+        if (idGenerator != null) {
+            builder.setIdGenerator(idGenerator.create());
+        }
+
         // TODO: span limits
         // TODO: sampler
 
-        createProcessors(meterProviderSupplier).forEach(builder::addSpanProcessor);
+        createProcessors(meterProviderSupplier, timed).forEach(builder::addSpanProcessor);
 
         return shutdownManager.onShutdown(builder.build());
     }
 
-    private List<SpanProcessor> createProcessors(Supplier<MeterProvider> meterProvider) {
+    private List<SpanProcessor> createProcessors(Supplier<MeterProvider> meterProvider, boolean timed) {
 
         List<SpanProcessor> processors = new ArrayList<>(2);
 
@@ -100,7 +207,9 @@ public class SdkTracerProviderFactory {
                 .toList();
 
         if (!batchedExporters.isEmpty()) {
-            processors.add(createBatchProcessor(batchedExporters, meterProvider));
+            processors.add(priorityQueueSize != null
+                    ? createPriorityProcessor(batchedExporters, meterProvider, timed)
+                    : createBatchProcessor(createExporter(batchedExporters), getMaxQueueSizeOrDefault(), meterProvider, timed));
         }
 
         return processors;
@@ -116,22 +225,52 @@ public class SdkTracerProviderFactory {
         return shutdownManager.onShutdown(processor);
     }
 
-    private BatchSpanProcessor createBatchProcessor(List<SpanExporterHolder> exporterSuppliers, Supplier<MeterProvider> meterProvider) {
+    private SpanProcessor createPriorityProcessor(
+            List<SpanExporterHolder> exporterSuppliers,
+            Supplier<MeterProvider> meterProvider,
+            boolean timed) {
+
+        // each lane gets its own exporters, so that a blocked regular export doesn't hold up the priority lane
+        return new PrioritySpanProcessor(
+                meterProvider.get(),
+                priorityQueueSize,
+                getMaxQueueSizeOrDefault(),
+                () -> createExporter(exporterSuppliers),
+                (e, queueSize) -> createBatchProcessor(e, queueSize, meterProvider, timed));
+    }
 
+    private SpanExporter createExporter(List<SpanExporterHolder> exporterSuppliers) {
         List<SpanExporter> exporters = exporterSuppliers.stream().map(s -> s.spanExporter().get()).toList();
-        SpanExporter composite = SpanExporter.composite(exporters);
+        return SpanExporter.composite(exporters);
+    }
+
+    private BatchSpanProcessor createBatchProcessor(
+            SpanExporter exporter,
+            int queueSize,
+            Supplier<MeterProvider> meterProvider,
+            boolean timed) {
 
         // presumably we don't need to shut down the exporter, as BatchLogRecordProcessor would do it for us
         BatchSpanProcessorBuilder builder = BatchSpanProcessor
-                .builder(composite)
+                .builder(timed
+                        ? new TimedSpanExporter(exporter, meterProvider.get())
+                        : exporter)
                 .setMeterProvider(meterProvider)
-                .setScheduleDelay(getScheduleDelayOrDefault());
+                .setScheduleDelay(ScheduleDelayJitter.apply(
+                        getScheduleDelayOrDefault(),
+                        exportJitter != null ? exportJitter.getDuration() : null))
+                .setMaxQueueSize(queueSize);
+
+        // a small priority queue may be shorter than the batch
+        if (maxExportBatchSize != null) {
+            builder.setMaxExportBatchSize(Math.min(maxExportBatchSize, queueSize));
+        } else if (queueSize < DEFAULT_MAX_EXPORT_BATCH_SIZE) {
+            builder.setMaxExportBatchSize(queueSize);
+        }
 
-        // TODO:
-        //  support props for the builder:
-        //   otel.bsp.max.queue.size
-        //   otel.bsp.max.export.batch.size
-        //   otel.bsp.export.timeout
+        if (exportTimeout != null) {
+            builder.setExporterTimeout(exportTimeout.getDuration());
+        }
 
         return shutdownManager.onShutdown(builder.build());
     }
@@ -154,6 +293,10 @@ public class SdkTracerProviderFactory {
                 .toList();
     }
 
+    private int getMaxQueueSizeOrDefault() {
+        return maxQueueSize != null ? maxQueueSize : DEFAULT_MAX_QUEUE_SIZE;
+    }
+
     private java.time.Duration getScheduleDelayOrDefault() {
         return this.scheduleDelay != null
                 ? this.scheduleDelay.getDuration()
@@ -0,0 +1,83 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.trace;
+
+import io.bootique.otel.OpenTelemetryModule;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+
+/**
+ * A {@link SpanExporter} wrapper that records the duration of each batch export in the "span.export.duration"
+ * metric, with the "outcome" attribute set to "success" or "failure".
+ *
+ * @since 4.0
+ */
+class TimedSpanExporter implements SpanExporter {
+
+    static final String DURATION_HISTOGRAM_NAME = "span.export.duration";
+    static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+    private static final Attributes SUCCESS = Attributes.of(OUTCOME, "success");
+    private static final Attributes FAILURE = Attributes.of(OUTCOME, "failure");
+
+    private final SpanExporter delegate;
+    private final DoubleHistogram duration;
+
+    TimedSpanExporter(SpanExporter delegate, MeterProvider meterProvider) {
+        this.delegate = delegate;
+        this.duration = meterProvider
+                .get(OpenTelemetryModule.METER_NAME)
+                .histogramBuilder(DURATION_HISTOGRAM_NAME)
+                .setDescription("The duration of span batch exports")
+                .setUnit("ms")
+                .build();
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        long t0 = System.nanoTime();
+        CompletableResultCode result = delegate.export(spans);
+        result.whenComplete(() -> duration.record(
+                (System.nanoTime() - t0) / 1_000_000.,
+                result.isSuccess() ? SUCCESS : FAILURE));
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "TimedSpanExporter{delegate=" + delegate + '}';
+    }
+}
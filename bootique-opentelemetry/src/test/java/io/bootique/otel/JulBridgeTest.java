@@ -0,0 +1,51 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JulBridgeTest {
+
+    @Test
+    public void install() {
+
+        // keep a reference to the logger, so that it is not GC'd before the propagation
+        Logger logger = Logger.getLogger("io.bootique.otel.JulBridgeTest.l1");
+
+        JulBridge.install();
+
+        // slf4j-simple default level is "info"
+        assertEquals(Level.CONFIG, JulBridge.julLevel(LoggerFactory.getLogger("io.bootique.otel.JulBridgeTest.l1")));
+        assertEquals(Level.CONFIG, logger.getLevel());
+        assertEquals(Level.CONFIG, Logger.getLogger("").getLevel());
+
+        assertTrue(logger.isLoggable(Level.INFO));
+        assertTrue(logger.isLoggable(Level.CONFIG));
+        assertFalse(logger.isLoggable(Level.FINE));
+
+        // created after the propagation, inherits the root level
+        assertFalse(Logger.getLogger("io.bootique.otel.JulBridgeTest.l2").isLoggable(Level.FINE));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.bootique.cli.Cli;
+import io.bootique.command.CommandOutcome;
+import io.bootique.config.ConfigurationFactory;
+import io.bootique.log.BootLogger;
+import io.bootique.log.DefaultBootLogger;
+import io.bootique.otel.file.FileExporterOutput;
+import io.bootique.otel.logger.FileLogsExporterFactory;
+import io.bootique.otel.logger.SdkLoggerProviderFactory;
+import io.bootique.otel.meter.NoneMetricsExporterFactory;
+import io.bootique.otel.meter.SdkMeterProviderFactory;
+import io.bootique.otel.trace.FileTracesExporterFactory;
+import io.bootique.otel.trace.SdkTracerProviderFactory;
+import io.bootique.shutdown.DefaultShutdownManager;
+import io.bootique.type.TypeRef;
+import io.opentelemetry.sdk.resources.Resource;
+import joptsimple.OptionSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadCommandTest {
+
+    private final DefaultShutdownManager shutdownManager = new DefaultShutdownManager(Duration.ofSeconds(1), new DefaultBootLogger(false));
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void shutdown() {
+        shutdownManager.shutdown();
+    }
+
+    @Test
+    public void run() {
+
+        FileExporterOutput output = new FileExporterOutput(dir, 1024 * 1024, Duration.ofHours(1), false, 10, 1024);
+        OpenTelemetryFactory factory = new OpenTelemetryFactory(shutdownManager)
+                .setTracerProvider(new SdkTracerProviderFactory(shutdownManager)
+                        .setExporters(List.of(new FileTracesExporterFactory(output))))
+                .setLoggerProvider(new SdkLoggerProviderFactory(shutdownManager)
+                        .setExporters(List.of(new FileLogsExporterFactory(output))))
+                .setMeterProvider(new SdkMeterProviderFactory(shutdownManager)
+                        .setExporters(List.of(new NoneMetricsExporterFactory())));
+
+        List<String> out = new CopyOnWriteArrayList<>();
+        LoadCommand command = new LoadCommand(() -> configFactory(factory), Resource::empty, () -> logger(out));
+
+        CommandOutcome outcome = command.run(cli(Map.of(
+                LoadCommand.NAME, "1s",
+                LoadCommand.SPANS_OPTION, "500",
+                LoadCommand.LOGS_OPTION, "500",
+                LoadCommand.METRICS_OPTION, "500",
+                LoadCommand.THREADS_OPTION, "2")));
+
+        assertTrue(outcome.isSuccess(), outcome.toString());
+        assertEquals(5, out.size(), () -> String.join("\n", out));
+        assertTrue(out.get(1).startsWith("spans:   500/s requested"), out.get(1));
+        assertTrue(out.get(1).contains(" 0 dropped, export latency p50"), out.get(1));
+        assertTrue(out.get(2).startsWith("logs:    500/s requested"), out.get(2));
+        assertTrue(out.get(2).contains(" 0 dropped, export latency p50"), out.get(2));
+        assertTrue(out.get(3).startsWith("metrics: 500/s requested"), out.get(3));
+        assertTrue(out.get(4).startsWith("per item: "), out.get(4));
+    }
+
+    private static ConfigurationFactory configFactory(OpenTelemetryFactory factory) {
+        return new ConfigurationFactory() {
+
+            @Override
+            public <T> T config(Class<T> type, String prefix) {
+                return type.cast(factory);
+            }
+
+            @Override
+            public <T> T config(TypeRef<? extends T> type, String prefix) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static BootLogger logger(List<String> out) {
+        return new BootLogger() {
+
+            @Override
+            public void trace(Supplier<String> messageSupplier) {
+            }
+
+            @Override
+            public void stdout(String message) {
+                out.add(message);
+            }
+
+            @Override
+            public void stderr(String message) {
+                out.add(message);
+            }
+
+            @Override
+            public void stderr(String message, Throwable th) {
+                out.add(message);
+            }
+        };
+    }
+
+    private static Cli cli(Map<String, String> options) {
+        return new Cli() {
+
+            @Override
+            public String commandName() {
+                return LoadCommand.NAME;
+            }
+
+            @Override
+            public boolean hasOption(String name) {
+                return options.containsKey(name);
+            }
+
+            @Override
+            public List<OptionSpec<?>> detectedOptions() {
+                return List.of();
+            }
+
+            @Override
+            public List<String> optionStrings(String name) {
+                return options.containsKey(name) ? List.of(options.get(name)) : List.of();
+            }
+
+            @Override
+            public List<String> standaloneArguments() {
+                return List.of();
+            }
+        };
+    }
+}
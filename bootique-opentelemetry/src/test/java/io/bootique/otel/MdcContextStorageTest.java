@@ -0,0 +1,120 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.ContextStorage;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.BasicMDCAdapter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MdcContextStorageTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    @Test
+    public void attach() {
+        BasicMDCAdapter mdc = new BasicMDCAdapter();
+        MdcContextStorage storage = new MdcContextStorage(ContextStorage.defaultStorage(), mdc);
+        Context c1 = storage.root().with(Span.wrap(spanContext("b7ad6b7169203331")));
+        Context c2 = c1.with(Span.wrap(spanContext("00f067aa0ba902b7")));
+
+        assertNull(mdc.get(MdcContextStorage.TRACE_ID));
+
+        Scope s1 = storage.attach(c1);
+        try {
+            assertEquals(TRACE_ID, mdc.get(MdcContextStorage.TRACE_ID));
+            assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+
+            Scope s2 = storage.attach(c2);
+            try {
+                assertEquals(TRACE_ID, mdc.get(MdcContextStorage.TRACE_ID));
+                assertEquals("00f067aa0ba902b7", mdc.get(MdcContextStorage.SPAN_ID));
+            } finally {
+                s2.close();
+            }
+
+            assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+
+            // same span, different context
+            Scope s3 = storage.attach(c1.with(ContextKey.named("k"), "v"));
+            try {
+                assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+            } finally {
+                s3.close();
+            }
+
+            assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+        } finally {
+            s1.close();
+        }
+
+        assertNull(mdc.get(MdcContextStorage.TRACE_ID));
+        assertNull(mdc.get(MdcContextStorage.SPAN_ID));
+    }
+
+    @Test
+    public void attach_MdcCleared() {
+        BasicMDCAdapter mdc = new BasicMDCAdapter();
+        MdcContextStorage storage = new MdcContextStorage(ContextStorage.defaultStorage(), mdc);
+        Context c1 = storage.root().with(Span.wrap(spanContext("b7ad6b7169203331")));
+
+        Scope s1 = storage.attach(c1);
+        try {
+            assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+
+            // the app clears the MDC between the attaches of the same span
+            mdc.clear();
+
+            Scope s2 = storage.attach(c1);
+            try {
+                assertEquals(TRACE_ID, mdc.get(MdcContextStorage.TRACE_ID));
+                assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+            } finally {
+                s2.close();
+            }
+
+            // same after the app removes a single key
+            mdc.remove(MdcContextStorage.SPAN_ID);
+
+            Scope s3 = storage.attach(c1);
+            try {
+                assertEquals("b7ad6b7169203331", mdc.get(MdcContextStorage.SPAN_ID));
+            } finally {
+                s3.close();
+            }
+        } finally {
+            s1.close();
+        }
+
+        assertNull(mdc.get(MdcContextStorage.TRACE_ID));
+        assertNull(mdc.get(MdcContextStorage.SPAN_ID));
+    }
+
+    private static SpanContext spanContext(String spanId) {
+        return SpanContext.create(TRACE_ID, spanId, TraceFlags.getSampled(), TraceState.getDefault());
+    }
+}
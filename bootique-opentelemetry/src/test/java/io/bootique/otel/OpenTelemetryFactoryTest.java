@@ -0,0 +1,100 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel;
+
+import io.bootique.log.DefaultBootLogger;
+import io.bootique.otel.logger.NoneLogsExporterFactory;
+import io.bootique.otel.logger.SdkLoggerProviderFactory;
+import io.bootique.otel.meter.NoneMetricsExporterFactory;
+import io.bootique.otel.meter.SdkMeterProviderFactory;
+import io.bootique.otel.trace.NoneTracesExporterFactory;
+import io.bootique.otel.trace.SdkTracerProviderFactory;
+import io.bootique.shutdown.DefaultShutdownManager;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.logs.LoggerProvider;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenTelemetryFactoryTest {
+
+    private final DefaultShutdownManager shutdownManager = new DefaultShutdownManager(Duration.ofSeconds(1), new DefaultBootLogger(false));
+
+    @AfterEach
+    void shutdown() {
+        shutdownManager.shutdown();
+    }
+
+    @Test
+    public void create_Sdk() {
+        OpenTelemetry otel = new OpenTelemetryFactory(shutdownManager).create(Resource.empty());
+        assertInstanceOf(OpenTelemetrySdk.class, otel);
+    }
+
+    @Test
+    public void create_NoneExporters() {
+        OpenTelemetry otel = new OpenTelemetryFactory(shutdownManager)
+                .setTracerProvider(new SdkTracerProviderFactory(shutdownManager)
+                        .setExporters(List.of(new NoneTracesExporterFactory())))
+                .setMeterProvider(new SdkMeterProviderFactory(shutdownManager)
+                        .setExporters(List.of(new NoneMetricsExporterFactory())))
+                .setLoggerProvider(new SdkLoggerProviderFactory(shutdownManager)
+                        .setExporters(List.of(new NoneLogsExporterFactory())))
+                .create(Resource.empty());
+
+        assertSame(TracerProvider.noop(), otel.getTracerProvider());
+        assertSame(MeterProvider.noop(), otel.getMeterProvider());
+        assertSame(LoggerProvider.noop(), otel.getLogsBridge());
+    }
+
+    @Test
+    public void create_NoneMetricsExporters() {
+        OpenTelemetry otel = new OpenTelemetryFactory(shutdownManager)
+                .setMeterProvider(new SdkMeterProviderFactory(shutdownManager)
+                        .setExporters(List.of(new NoneMetricsExporterFactory())))
+                .create(Resource.empty());
+
+        // the type changes as soon as any of the signals is disabled
+        assertFalse(otel instanceof OpenTelemetrySdk);
+        assertSame(MeterProvider.noop(), otel.getMeterProvider());
+        assertInstanceOf(SdkTracerProvider.class, otel.getTracerProvider());
+        assertInstanceOf(SdkLoggerProvider.class, otel.getLogsBridge());
+    }
+
+    @Test
+    public void create_NoneExporters_RecordLogMetrics() {
+        OpenTelemetry otel = new OpenTelemetryFactory(shutdownManager)
+                .setLoggerProvider(new SdkLoggerProviderFactory(shutdownManager)
+                        .setRecordMetrics(true)
+                        .setExporters(List.of(new NoneLogsExporterFactory())))
+                .create(Resource.empty());
+
+        assertNotSame(LoggerProvider.noop(), otel.getLogsBridge());
+    }
+}
@@ -20,13 +20,17 @@ package io.bootique.otel;
 
 import io.bootique.BQCoreModule;
 import io.bootique.BQRuntime;
+import io.bootique.config.ConfigurationFactory;
 import io.bootique.junit.BQTest;
 import io.bootique.junit.BQTestFactory;
 import io.bootique.junit.BQTestTool;
 import io.bootique.otel.otlp.OtlpExporterEndpoint;
 import io.bootique.otel.otlp.OtlpProtocol;
+import io.bootique.type.TypeRef;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @BQTest
@@ -47,4 +51,28 @@ public class OpenTelemetryModuleExtenderIT {
         OtlpExporterEndpoint endpoint = runtime.getInstance(OtlpExporterEndpoint.class);
         assertEquals(OtlpProtocol.grpc, endpoint.protocol());
     }
+
+    @Test
+    public void declareOtelVars_BatchLogRecordProcessor() {
+        BQRuntime runtime = testFactory.app()
+                .module(b -> {
+                    OpenTelemetryModule.extend(b).declareOtelVars();
+                    BQCoreModule.extend(b)
+                            .setVar("OTEL_BLRP_SCHEDULE_DELAY", "2s")
+                            .setVar("OTEL_BLRP_MAX_QUEUE_SIZE", "100")
+                            .setVar("OTEL_BLRP_MAX_EXPORT_BATCH_SIZE", "10")
+                            .setVar("OTEL_BLRP_EXPORT_TIMEOUT", "5s");
+                })
+                .createRuntime();
+
+        Map<String, Object> config = runtime
+                .getInstance(ConfigurationFactory.class)
+                .config(new TypeRef<Map<String, Object>>() {
+                }, "opentelemetry.loggerProvider");
+
+        assertEquals("2s", config.get("scheduleDelay"));
+        assertEquals("100", config.get("maxQueueSize"));
+        assertEquals("10", config.get("maxExportBatchSize"));
+        assertEquals("5s", config.get("exportTimeout"));
+    }
 }
@@ -81,8 +81,10 @@ public class SdkTracerProviderIT {
                 .createRuntime();
         OpenTelemetry otel = runtime.getInstance(OpenTelemetry.class);
 
+        // with no exporters, the tracing is disabled altogether
         Span span = otel.getTracer("test").spanBuilder("none-span").startSpan();
-        assertInstanceOf(ReadableSpan.class, span);
+        assertFalse(span instanceof ReadableSpan);
+        assertFalse(span.getSpanContext().isValid());
         String output = captureStderr(span::end);
         assertTrue(output.isEmpty(), () -> "No export output expected with 'none' exporter, got: " + output);
     }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.clock;
+
+import io.opentelemetry.sdk.common.Clock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedClockTest {
+
+    @Test
+    public void now() throws InterruptedException {
+        try (CachedClock clock = new CachedClock(Clock.getDefault(), Duration.ofMillis(1))) {
+
+            long now = clock.now();
+            long nanoTime = clock.nanoTime();
+            assertEquals(now, clock.now(true));
+            assertTrue(Math.abs(now - Clock.getDefault().now()) < Duration.ofSeconds(1).toNanos());
+
+            Thread.sleep(20);
+            assertTrue(clock.now() > now);
+            assertTrue(clock.nanoTime() > nanoTime);
+        }
+    }
+
+    @Test
+    public void now_Resolution() throws InterruptedException {
+        try (CachedClock clock = new CachedClock(Clock.getDefault(), Duration.ofHours(1))) {
+
+            long now = clock.now();
+            long nanoTime = clock.nanoTime();
+
+            Thread.sleep(20);
+            assertEquals(now, clock.now());
+            assertEquals(nanoTime, clock.nanoTime());
+        }
+    }
+
+    @Test
+    public void close() throws InterruptedException {
+        CachedClock clock = new CachedClock(Clock.getDefault(), Duration.ofMillis(1));
+        clock.close();
+
+        // let the tick that may be in progress finish
+        Thread.sleep(10);
+        long now = clock.now();
+
+        Thread.sleep(20);
+        assertEquals(now, clock.now());
+    }
+}
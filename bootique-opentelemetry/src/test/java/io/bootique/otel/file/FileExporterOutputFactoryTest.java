@@ -0,0 +1,43 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import io.bootique.value.Bytes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileExporterOutputFactoryTest {
+
+    @Test
+    public void create_BufferSize() {
+        assertEquals(64 * 1024, new FileExporterOutputFactory().create().bufferSize());
+        assertEquals(1024, new FileExporterOutputFactory().setBufferSize(new Bytes("1kb")).create().bufferSize());
+    }
+
+    @Test
+    public void create_BufferSizeOutOfRange() {
+        IllegalArgumentException e = assertThrows(
+                IllegalArgumentException.class,
+                () -> new FileExporterOutputFactory().setBufferSize(new Bytes("3gb")).create());
+        assertTrue(e.getMessage().contains("'bufferSize'"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> new FileExporterOutputFactory().setBufferSize(new Bytes("0b")).create());
+    }
+}
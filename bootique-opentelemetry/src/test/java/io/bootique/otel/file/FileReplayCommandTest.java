@@ -0,0 +1,135 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import com.sun.net.httpserver.HttpServer;
+import io.bootique.cli.Cli;
+import io.bootique.command.CommandOutcome;
+import io.bootique.log.DefaultBootLogger;
+import io.bootique.otel.otlp.OtlpExporterEndpoint;
+import io.bootique.otel.otlp.OtlpProtocol;
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import joptsimple.OptionSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileReplayCommandTest {
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private List<String> received;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        received = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            received.add(exchange.getRequestURI().getPath() + ":" + exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void run() {
+        FileExporterOutput output = new FileExporterOutput(dir, 1024 * 1024, Duration.ofHours(1), true, 10, 1024);
+        FileSegmentWriter writer = new FileSegmentWriter(output, "traces", FileSegmentFormat.DELIMITED_PROTOBUF);
+        for (int i = 0; i < 3; i++) {
+            writer.write(TraceRequestMarshaler.create(FileSegmentWriterTest.spans("s" + i)));
+        }
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+
+        OtlpExporterEndpoint endpoint = new OtlpExporterEndpoint(
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                OtlpProtocol.http_protobuf,
+                Map.of());
+
+        FileReplayCommand command = new FileReplayCommand(() -> endpoint, () -> new DefaultBootLogger(false));
+        CommandOutcome outcome = command.run(cli(Map.of(
+                FileReplayCommand.NAME, dir.toString(),
+                FileReplayCommand.RATE_OPTION, "1000",
+                FileReplayCommand.PARALLELISM_OPTION, "2")));
+
+        assertTrue(outcome.isSuccess(), outcome.toString());
+        assertEquals(List.of(
+                "/v1/traces:application/x-protobuf",
+                "/v1/traces:application/x-protobuf",
+                "/v1/traces:application/x-protobuf"), received);
+    }
+
+    @Test
+    public void run_Grpc() {
+        OtlpExporterEndpoint endpoint = new OtlpExporterEndpoint("http://127.0.0.1:4317", OtlpProtocol.grpc, Map.of());
+        FileReplayCommand command = new FileReplayCommand(() -> endpoint, () -> new DefaultBootLogger(false));
+
+        assertFalse(command.run(cli(Map.of(FileReplayCommand.NAME, dir.toString()))).isSuccess());
+    }
+
+    private static Cli cli(Map<String, String> options) {
+        return new Cli() {
+
+            @Override
+            public String commandName() {
+                return FileReplayCommand.NAME;
+            }
+
+            @Override
+            public boolean hasOption(String name) {
+                return options.containsKey(name);
+            }
+
+            @Override
+            public List<OptionSpec<?>> detectedOptions() {
+                return List.of();
+            }
+
+            @Override
+            public List<String> optionStrings(String name) {
+                return options.containsKey(name) ? List.of(options.get(name)) : List.of();
+            }
+
+            @Override
+            public List<String> standaloneArguments() {
+                return List.of();
+            }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.file;
+
+import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSegmentWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void write() throws IOException {
+        FileSegmentWriter writer = new FileSegmentWriter(output(1024, Duration.ofHours(1), false, 10), "traces", FileSegmentFormat.JSON_LINES);
+
+        assertTrue(writer.write(bytes("a\n")));
+        assertTrue(writer.write(bytes("b\n")));
+        assertTrue(writer.flush().join(1, TimeUnit.SECONDS).isSuccess());
+
+        List<Path> segments = segments();
+        assertEquals(1, segments.size());
+        assertTrue(segments.get(0).getFileName().toString().startsWith("traces-"));
+        assertTrue(segments.get(0).getFileName().toString().endsWith(".jsonl"));
+        assertEquals("a\nb\n", Files.readString(segments.get(0)));
+
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+        assertFalse(writer.write(bytes("c\n")));
+    }
+
+    @Test
+    public void write_RotateBySize() throws IOException {
+        FileSegmentWriter writer = new FileSegmentWriter(output(5, Duration.ofHours(1), false, 10), "logs", FileSegmentFormat.JSON_LINES);
+
+        writer.write(bytes("a1\n"));
+        writer.write(bytes("a2\n"));
+        writer.write(bytes("a3\n"));
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+
+        List<String> contents = segments().stream().map(FileSegmentWriterTest::read).toList();
+        assertEquals(List.of("a1\n", "a2\n", "a3\n"), contents);
+    }
+
+    @Test
+    public void write_RotateByTime() throws IOException, InterruptedException {
+        FileSegmentWriter writer = new FileSegmentWriter(output(1024, Duration.ofMillis(50), false, 10), "logs", FileSegmentFormat.JSON_LINES);
+
+        writer.write(bytes("a1\n"));
+        assertTrue(writer.flush().join(1, TimeUnit.SECONDS).isSuccess());
+
+        Thread.sleep(100);
+        writer.write(bytes("a2\n"));
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+
+        List<String> contents = segments().stream().map(FileSegmentWriterTest::read).toList();
+        assertEquals(List.of("a1\n", "a2\n"), contents);
+    }
+
+    @Test
+    public void write_Compress() throws IOException {
+        FileSegmentWriter writer = new FileSegmentWriter(output(1024, Duration.ofHours(1), true, 10), "metrics", FileSegmentFormat.JSON_LINES);
+
+        writer.write(bytes("a\n"));
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+
+        List<Path> segments = segments();
+        assertEquals(1, segments.size());
+        assertTrue(segments.get(0).getFileName().toString().endsWith(".jsonl.gz"));
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(segments.get(0)))) {
+            assertEquals("a\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void write_QueueFull() {
+        FileSegmentWriter writer = new FileSegmentWriter(output(1024, Duration.ofHours(1), false, 0), "traces", FileSegmentFormat.JSON_LINES);
+
+        assertFalse(writer.write(bytes("a\n")));
+        assertEquals(1, writer.getDropped());
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+    }
+
+    @Test
+    public void write_SegmentFailure() {
+        // a negative buffer size fails the segment creation with a runtime exception
+        FileExporterOutput output = new FileExporterOutput(dir, 1024, Duration.ofHours(1), false, 10, -1);
+        FileSegmentWriter writer = new FileSegmentWriter(output, "traces", FileSegmentFormat.JSON_LINES);
+
+        assertTrue(writer.write(bytes("a\n")));
+
+        // the writer thread must survive the failure and keep processing the queue
+        assertTrue(writer.flush().join(1, TimeUnit.SECONDS).isDone());
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isDone());
+    }
+
+    @Test
+    public void create_DelimitedProtobuf_MaxFileSizeTooLarge() {
+        FileExporterOutput output = output(3L * 1024 * 1024 * 1024, Duration.ofHours(1), false, 10);
+        assertThrows(IllegalArgumentException.class, () -> new FileSegmentWriter(output, "traces", FileSegmentFormat.DELIMITED_PROTOBUF));
+
+        // no such limit for the JSON segments
+        FileSegmentWriter writer = new FileSegmentWriter(output, "traces", FileSegmentFormat.JSON_LINES);
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+    }
+
+    @Test
+    public void create_DelimitedProtobuf_MaxFileSizeZero() {
+        FileExporterOutput output = output(0, Duration.ofHours(1), false, 10);
+        assertThrows(IllegalArgumentException.class, () -> new FileSegmentWriter(output, "traces", FileSegmentFormat.DELIMITED_PROTOBUF));
+    }
+
+    @Test
+    public void openSegment_DelimitedProtobuf_MappingCap() throws IOException {
+        FileExporterOutput output = output(1024, Duration.ofHours(1), false, 10);
+
+        // some mappings may still be alive after the other tests, so only checking that the cap is reached
+        List<FileSegment> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i <= MappedFileSegment.MAX_LIVE_MAPPINGS; i++) {
+                opened.add(FileSegmentFormat.DELIMITED_PROTOBUF.openSegment(dir.resolve("s" + i), output, 1));
+            }
+
+            assertInstanceOf(ChannelFileSegment.class, opened.get(MappedFileSegment.MAX_LIVE_MAPPINGS));
+        } finally {
+            for (FileSegment s : opened) {
+                s.close();
+            }
+        }
+    }
+
+    @Test
+    public void write_DelimitedProtobuf() throws IOException {
+        FileSegmentWriter writer = new FileSegmentWriter(output(1024, Duration.ofHours(1), false, 10), "traces", FileSegmentFormat.DELIMITED_PROTOBUF);
+
+        List<SpanData> spans = spans("s1", "s2");
+        assertTrue(writer.write(TraceRequestMarshaler.create(spans.subList(0, 1))));
+        assertTrue(writer.write(TraceRequestMarshaler.create(spans.subList(1, 2))));
+        assertTrue(writer.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+
+        List<Path> segments = segments();
+        assertEquals(1, segments.size());
+        assertTrue(segments.get(0).getFileName().toString().endsWith(".binpb"));
+
+        byte[] m1 = binary(TraceRequestMarshaler.create(spans.subList(0, 1)));
+        byte[] m2 = binary(TraceRequestMarshaler.create(spans.subList(1, 2)));
+
+        // the preallocated segment must be truncated on close. Each message is prefixed with a 2-byte length
+        assertEquals(m1.length + m2.length + 4, Files.size(segments.get(0)));
+
+        try (DelimitedProtobufReader reader = new DelimitedProtobufReader(segments.get(0))) {
+            assertArrayEquals(m1, reader.next());
+            assertArrayEquals(m2, reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void encode_JsonLines() {
+        List<SpanData> spans = spans("s1");
+        String line = new String(FileSegmentFormat.JSON_LINES.encode(TraceRequestMarshaler.create(spans)), StandardCharsets.UTF_8);
+
+        assertTrue(line.startsWith("{\"resourceSpans\":["), line);
+        assertTrue(line.contains("\"name\":\"s1\""), line);
+        assertTrue(line.endsWith("}\n"), line);
+        assertEquals(1, line.split("\n").length);
+    }
+
+    private static byte[] binary(Marshaler marshaler) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaler.writeBinaryTo(out);
+        return out.toByteArray();
+    }
+
+    static List<SpanData> spans(String... names) {
+        InMemorySpanExporter exporter = InMemorySpanExporter.create();
+        try (SdkTracerProvider tp = SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build()) {
+            for (String n : names) {
+                tp.get("test").spanBuilder(n).startSpan().end();
+            }
+
+            return exporter.getFinishedSpanItems();
+        }
+    }
+
+    private FileExporterOutput output(long maxFileSize, Duration rotationInterval, boolean compress, int queueSize) {
+        return new FileExporterOutput(dir, maxFileSize, rotationInterval, compress, queueSize, 16);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+
+            // segment names are ordered by the sequence number, which increases monotonically
+            return files.sorted((p1, p2) -> Integer.compare(sequence(p1), sequence(p2))).toList();
+        }
+    }
+
+    private static int sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1, name.indexOf('.')));
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
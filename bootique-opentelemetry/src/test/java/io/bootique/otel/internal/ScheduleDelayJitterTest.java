@@ -0,0 +1,43 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleDelayJitterTest {
+
+    @Test
+    public void apply() {
+        for (int i = 0; i < 100; i++) {
+            Duration delay = ScheduleDelayJitter.apply(Duration.ofSeconds(5), Duration.ofSeconds(1));
+            assertTrue(delay.compareTo(Duration.ofSeconds(5)) >= 0, delay::toString);
+            assertTrue(delay.compareTo(Duration.ofSeconds(6)) < 0, delay::toString);
+        }
+    }
+
+    @Test
+    public void apply_NoJitter() {
+        assertEquals(Duration.ofSeconds(5), ScheduleDelayJitter.apply(Duration.ofSeconds(5), null));
+        assertEquals(Duration.ofSeconds(5), ScheduleDelayJitter.apply(Duration.ofSeconds(5), Duration.ZERO));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentMultiLogRecordExporterTest {
+
+    private static final LogRecordData LOG = new LogRecordFormatterTest.TestLogRecord(0, Value.of("m"), Attributes.empty());
+
+    @Test
+    public void export_Concurrent() throws InterruptedException {
+
+        // each exporter blocks until both are called, so a sequential export would time out
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        SdkLoggerProviderFactoryTest.TestExporter e1 = new BlockingExporter(bothStarted);
+        SdkLoggerProviderFactoryTest.TestExporter e2 = new BlockingExporter(bothStarted);
+
+        LogRecordExporter multi = ConcurrentMultiLogRecordExporter.create(List.of(e1, e2), 1);
+        try {
+            CompletableResultCode result = multi.export(List.of(LOG)).join(5, TimeUnit.SECONDS);
+            assertTrue(result.isSuccess());
+            assertEquals(1, e1.exported.size());
+            assertEquals(1, e2.exported.size());
+        } finally {
+            multi.shutdown();
+        }
+    }
+
+    @Test
+    public void export_BatchCopied() {
+        SdkLoggerProviderFactoryTest.TestExporter e1 = new SdkLoggerProviderFactoryTest.TestExporter();
+        SdkLoggerProviderFactoryTest.TestExporter e2 = new SdkLoggerProviderFactoryTest.TestExporter();
+
+        LogRecordExporter multi = ConcurrentMultiLogRecordExporter.create(List.of(e1, e2), 1);
+        try {
+            List<LogRecordData> batch = new ArrayList<>(List.of(LOG, LOG));
+            CompletableResultCode result = multi.export(batch);
+            batch.clear();
+
+            assertTrue(result.join(5, TimeUnit.SECONDS).isSuccess());
+            assertEquals(2, e1.exported.size());
+            assertEquals(2, e2.exported.size());
+        } finally {
+            multi.shutdown();
+        }
+    }
+
+    @Test
+    public void export_InFlightLimit() {
+
+        CompletableResultCode stuckResult = new CompletableResultCode();
+        SdkLoggerProviderFactoryTest.TestExporter stuck = new SdkLoggerProviderFactoryTest.TestExporter() {
+            @Override
+            public CompletableResultCode export(Collection<LogRecordData> logs) {
+                super.export(logs);
+                return stuckResult;
+            }
+        };
+        SdkLoggerProviderFactoryTest.TestExporter ok = new SdkLoggerProviderFactoryTest.TestExporter();
+
+        LogRecordExporter multi = ConcurrentMultiLogRecordExporter.create(List.of(stuck, ok), 1);
+        try {
+            CompletableResultCode r1 = multi.export(List.of(LOG));
+
+            // the second export is skipped by the stuck exporter
+            CompletableResultCode r2 = multi.export(List.of(LOG)).join(5, TimeUnit.SECONDS);
+            assertTrue(r2.isDone());
+            assertFalse(r2.isSuccess());
+            assertFalse(r1.isDone());
+
+            // once the stuck export is finished, the exporter accepts new batches
+            stuckResult.succeed();
+            assertTrue(r1.join(5, TimeUnit.SECONDS).isSuccess());
+            assertTrue(multi.export(List.of(LOG)).join(5, TimeUnit.SECONDS).isSuccess());
+            assertEquals(2, stuck.exported.size());
+        } finally {
+            multi.shutdown();
+        }
+    }
+
+    @Test
+    public void flush_WaitsForInFlightExports() {
+
+        CompletableResultCode stuckResult = new CompletableResultCode();
+        SdkLoggerProviderFactoryTest.TestExporter stuck = new SdkLoggerProviderFactoryTest.TestExporter() {
+            @Override
+            public CompletableResultCode export(Collection<LogRecordData> logs) {
+                super.export(logs);
+                return stuckResult;
+            }
+        };
+        SdkLoggerProviderFactoryTest.TestExporter ok = new SdkLoggerProviderFactoryTest.TestExporter();
+
+        LogRecordExporter multi = ConcurrentMultiLogRecordExporter.create(List.of(stuck, ok), 1);
+        try {
+            CompletableResultCode exported = multi.export(List.of(LOG));
+            CompletableResultCode flushed = multi.flush();
+            assertFalse(flushed.join(100, TimeUnit.MILLISECONDS).isDone());
+
+            stuckResult.succeed();
+            assertTrue(flushed.join(5, TimeUnit.SECONDS).isSuccess());
+            assertTrue(exported.isSuccess());
+        } finally {
+            multi.shutdown();
+        }
+    }
+
+    static class BlockingExporter extends SdkLoggerProviderFactoryTest.TestExporter {
+
+        private final CountDownLatch latch;
+
+        BlockingExporter(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<LogRecordData> logs) {
+            latch.countDown();
+            try {
+                if (!latch.await(5, TimeUnit.SECONDS)) {
+                    return CompletableResultCode.ofFailure();
+                }
+            } catch (InterruptedException e) {
+                return CompletableResultCode.ofFailure();
+            }
+
+            return super.export(logs);
+        }
+    }
+}
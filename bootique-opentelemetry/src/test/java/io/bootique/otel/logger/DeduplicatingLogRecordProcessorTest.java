@@ -0,0 +1,162 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeduplicatingLogRecordProcessorTest {
+
+    private SdkLoggerProviderFactoryTest.TestExporter exporter;
+    private DeduplicatingLogRecordProcessor processor;
+    private SdkLoggerProvider provider;
+
+    @BeforeEach
+    void before() {
+        exporter = new SdkLoggerProviderFactoryTest.TestExporter();
+
+        // not starting the processor, the windows are ended explicitly
+        processor = new DeduplicatingLogRecordProcessor(SimpleLogRecordProcessor.create(exporter), 2, 100);
+        provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build();
+    }
+
+    @AfterEach
+    void after() {
+        provider.close();
+    }
+
+    @Test
+    public void suppress() {
+        for (int i = 0; i < 5; i++) {
+            emit("s1", Severity.ERROR, "Failed order " + i, "java.io.IOException");
+        }
+
+        emit("s1", Severity.ERROR, "Failed order 6", "java.lang.RuntimeException");
+        emit("s1", Severity.WARN, "Failed order 7", "java.io.IOException");
+        emit("s2", Severity.ERROR, "Failed order 8", "java.io.IOException");
+        emit("s1", Severity.ERROR, "Completed order 9", "java.io.IOException");
+
+        assertEquals(List.of(
+                "Failed order 0",
+                "Failed order 1",
+                "Failed order 6",
+                "Failed order 7",
+                "Failed order 8",
+                "Completed order 9"), bodies());
+
+        exporter.exported.clear();
+        processor.endWindow();
+
+        assertEquals(1, exporter.exported.size());
+        LogRecordData summary = exporter.exported.get(0);
+        assertEquals("Failed order 2", summary.getBodyValue().asString());
+        assertEquals(3L, summary.getAttributes().get(DeduplicatingLogRecordProcessor.SUPPRESSED_COUNT));
+        assertEquals("java.io.IOException", summary.getAttributes().get(DeduplicatingLogRecordProcessor.EXCEPTION_TYPE));
+        assertEquals(Severity.ERROR, summary.getSeverity());
+        assertEquals("s1", summary.getInstrumentationScopeInfo().getName());
+    }
+
+    @Test
+    public void suppress_NextWindow() {
+        for (int i = 0; i < 3; i++) {
+            emit("s1", Severity.ERROR, "Failed order " + i, null);
+        }
+
+        processor.endWindow();
+        exporter.exported.clear();
+
+        for (int i = 3; i < 6; i++) {
+            emit("s1", Severity.ERROR, "Failed order " + i, null);
+        }
+
+        assertEquals(List.of("Failed order 3", "Failed order 4"), bodies());
+    }
+
+    @Test
+    public void noSummary_NothingSuppressed() {
+        emit("s1", Severity.ERROR, "Failed order 1", null);
+        exporter.exported.clear();
+
+        processor.endWindow();
+        assertEquals(0, exporter.exported.size());
+    }
+
+    @Test
+    public void maxGroups() {
+        DeduplicatingLogRecordProcessor processor = new DeduplicatingLogRecordProcessor(SimpleLogRecordProcessor.create(exporter), 1, 1);
+        try (SdkLoggerProvider provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build()) {
+
+            // the limit is approximate (per stripe), so using enough distinct groups to exceed it
+            for (int i = 0; i < 100; i++) {
+                provider.get("s" + i).logRecordBuilder().setBody("b").emit();
+                provider.get("s" + i).logRecordBuilder().setBody("b").emit();
+            }
+        }
+
+        assertTrue(exporter.exported.size() > 100, () -> "Expected untracked groups to pass through: " + exporter.exported.size());
+    }
+
+    @Test
+    public void templateHash() {
+        assertEquals(
+                DeduplicatingLogRecordProcessor.templateHash(Value.of("Order 1 failed after 25 ms")),
+                DeduplicatingLogRecordProcessor.templateHash(Value.of("Order 12345 failed after 3 ms")));
+
+        assertNotEquals(
+                DeduplicatingLogRecordProcessor.templateHash(Value.of("Order 1 failed")),
+                DeduplicatingLogRecordProcessor.templateHash(Value.of("Order 1 completed")));
+
+        assertEquals(0, DeduplicatingLogRecordProcessor.templateHash(null));
+    }
+
+    @Test
+    public void templateEquals() {
+        assertTrue(DeduplicatingLogRecordProcessor.templateEquals("Order 1 failed after 25 ms", "Order 12345 failed after 3 ms"));
+        assertTrue(DeduplicatingLogRecordProcessor.templateEquals("12", "3"));
+        assertTrue(DeduplicatingLogRecordProcessor.templateEquals(null, null));
+
+        assertFalse(DeduplicatingLogRecordProcessor.templateEquals("Order 1 failed", "Order 1 completed"));
+        assertFalse(DeduplicatingLogRecordProcessor.templateEquals("Order 1", "Order 1 "));
+        assertFalse(DeduplicatingLogRecordProcessor.templateEquals("Order 1", "Order x"));
+        assertFalse(DeduplicatingLogRecordProcessor.templateEquals("Order 1", null));
+    }
+
+    private void emit(String scope, Severity severity, String body, String exceptionType) {
+        LogRecordBuilder builder = provider.get(scope).logRecordBuilder().setSeverity(severity).setBody(body);
+        if (exceptionType != null) {
+            builder.setAttribute(DeduplicatingLogRecordProcessor.EXCEPTION_TYPE, exceptionType);
+        }
+        builder.emit();
+    }
+
+    private List<String> bodies() {
+        return exporter.exported.stream().map(l -> l.getBodyValue().asString()).toList();
+    }
+}
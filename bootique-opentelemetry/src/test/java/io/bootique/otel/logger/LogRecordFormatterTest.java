@@ -0,0 +1,174 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.logs.data.Body;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.resources.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogRecordFormatterTest {
+
+    @Test
+    public void format_Timestamp() {
+
+        long[] timestamps = {
+                0L,
+                1_700_000_000_000_000_000L,
+                1_700_000_000_100_000_000L,
+                1_700_000_000_120_000_000L,
+                1_700_000_000_123_000_000L,
+                1_700_000_000_005_000_000L,
+                1_700_000_000_050_999_999L,
+                1_700_000_059_999_000_000L,
+                -1_500_000_000L
+        };
+
+        LogRecordFormatter formatter = new LogRecordFormatter();
+        for (long ts : timestamps) {
+            String expected = DateTimeFormatter.ISO_DATE_TIME.format(
+                    Instant.ofEpochMilli(Math.floorDiv(ts, 1_000_000L)).atZone(ZoneOffset.UTC));
+
+            String formatted = formatter.format(new TestLogRecord(ts, Value.of("msg"), Attributes.empty())).toString();
+            assertTrue(formatted.startsWith(expected + " "), () -> "Expected '" + expected + "', got: " + formatted);
+        }
+    }
+
+    @Test
+    public void format_SameSecond() {
+        LogRecordFormatter formatter = new LogRecordFormatter();
+
+        assertTrue(formatter.format(new TestLogRecord(1_700_000_000_100_000_000L, null, Attributes.empty()))
+                .toString().startsWith("2023-11-14T22:13:20.1Z "));
+        assertTrue(formatter.format(new TestLogRecord(1_700_000_000_200_000_000L, null, Attributes.empty()))
+                .toString().startsWith("2023-11-14T22:13:20.2Z "));
+        assertTrue(formatter.format(new TestLogRecord(1_700_000_001_000_000_000L, null, Attributes.empty()))
+                .toString().startsWith("2023-11-14T22:13:21Z "));
+    }
+
+    @Test
+    public void format() {
+        Attributes attributes = Attributes.builder()
+                .put("s", "v")
+                .put("l", 5L)
+                .put("d", 1.5)
+                .put("b", true)
+                .put(AttributeKey.stringArrayKey("a"), List.of("x", "y"))
+                .build();
+
+        TestLogRecord log = new TestLogRecord(1_700_000_000_000_000_000L, Value.of("hello"), attributes);
+
+        assertEquals("2023-11-14T22:13:20Z INFO 'hello' : 00000000000000000000000000000000 0000000000000000 "
+                        + "[scopeInfo: test:1.0] " + attributes,
+                new LogRecordFormatter().format(log).toString());
+    }
+
+    @Test
+    public void format_NoBody_NoAttributes() {
+        TestLogRecord log = new TestLogRecord(1_700_000_000_000_000_000L, null, Attributes.empty());
+
+        assertEquals("2023-11-14T22:13:20Z INFO '' : 00000000000000000000000000000000 0000000000000000 "
+                        + "[scopeInfo: test:1.0] {}",
+                new LogRecordFormatter().format(log).toString());
+    }
+
+    @Test
+    public void appendLine() {
+        LogRecordFormatter formatter = new LogRecordFormatter();
+        TestLogRecord l1 = new TestLogRecord(1_700_000_000_000_000_000L, Value.of("m1"), Attributes.empty());
+        TestLogRecord l2 = new TestLogRecord(1_700_000_000_000_000_000L, Value.of("m2"), Attributes.empty());
+
+        String expected = formatter.format(l1) + System.lineSeparator() + formatter.format(l2);
+        assertEquals(expected, formatter.reset().appendLine(l1).appendLine(l2).buffer().toString());
+
+        assertEquals("", formatter.reset().buffer().toString());
+    }
+
+    record TestLogRecord(long timestampEpochNanos, Value<?> bodyValue, Attributes attributes) implements LogRecordData {
+
+        @Override
+        public Resource getResource() {
+            return Resource.empty();
+        }
+
+        @Override
+        public InstrumentationScopeInfo getInstrumentationScopeInfo() {
+            return InstrumentationScopeInfo.builder("test").setVersion("1.0").build();
+        }
+
+        @Override
+        public long getTimestampEpochNanos() {
+            return timestampEpochNanos;
+        }
+
+        @Override
+        public long getObservedTimestampEpochNanos() {
+            return timestampEpochNanos;
+        }
+
+        @Override
+        public SpanContext getSpanContext() {
+            return SpanContext.getInvalid();
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.INFO;
+        }
+
+        @Override
+        public String getSeverityText() {
+            return "INFO";
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Body getBody() {
+            return bodyValue != null ? Body.string(bodyValue.asString()) : Body.empty();
+        }
+
+        @Override
+        public Value<?> getBodyValue() {
+            return bodyValue;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public int getTotalAttributeCount() {
+            return attributes.size();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriorityLogRecordProcessorTest {
+
+    @Test
+    public void routeAndDrop() {
+
+        InMemoryMetricReader reader = InMemoryMetricReader.create();
+        List<SdkLoggerProviderFactoryTest.TestExporter> exporters = new ArrayList<>();
+
+        // lane processors by capacity
+        Map<Integer, QueueingProcessor> lanes = new HashMap<>();
+
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(reader).build()) {
+
+            PriorityLogRecordProcessor processor = new PriorityLogRecordProcessor(
+                    meterProvider,
+                    Severity.ERROR,
+                    2,
+                    1,
+                    () -> add(exporters, new SdkLoggerProviderFactoryTest.TestExporter()),
+                    (e, capacity) -> lanes.computeIfAbsent(capacity, c -> new QueueingProcessor(e, c)));
+
+            try (SdkLoggerProvider provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build()) {
+
+                emit(provider, Severity.INFO, "i1");
+                emit(provider, Severity.INFO, "i2");
+                emit(provider, Severity.ERROR, "e1");
+                emit(provider, Severity.FATAL, "f1");
+                emit(provider, Severity.ERROR, "e2");
+
+                // the export frees up the lanes
+                provider.forceFlush();
+                emit(provider, Severity.INFO, "i3");
+                emit(provider, Severity.ERROR, "e3");
+            }
+
+            assertEquals(List.of("e1", "f1", "e3"), lanes.get(2).bodies);
+            assertEquals(List.of("i1", "i3"), lanes.get(1).bodies);
+
+            // each lane has its own exporter, the priority lane is created first
+            assertEquals(2, exporters.size());
+            assertEquals(List.of("e1", "f1", "e3"), bodies(exporters.get(0)));
+            assertEquals(List.of("i1", "i3"), bodies(exporters.get(1)));
+            assertEquals(1, exporters.get(0).shutdownCount);
+            assertEquals(1, exporters.get(1).shutdownCount);
+
+            Map<Attributes, Long> dropped = reader.collectAllMetrics().stream()
+                    .filter(m -> m.getName().equals(PriorityLogRecordProcessor.DROPPED_COUNTER_NAME))
+                    .flatMap(m -> m.getLongSumData().getPoints().stream())
+                    .collect(Collectors.toMap(LongPointData::getAttributes, LongPointData::getValue));
+
+            assertEquals(Map.of(
+                    Attributes.of(PriorityLogRecordProcessor.LANE, "priority"), 1L,
+                    Attributes.of(PriorityLogRecordProcessor.LANE, "regular"), 1L), dropped);
+        }
+    }
+
+    @Test
+    public void blockedRegularExportDoesNotDelayPriorityExport() throws InterruptedException {
+
+        SdkLoggerProviderFactoryTest.TestExporter priorityExporter = new SdkLoggerProviderFactoryTest.TestExporter();
+        SdkLoggerProviderFactoryTest.BlockingExporter regularExporter = new SdkLoggerProviderFactoryTest.BlockingExporter();
+        Iterator<SdkLoggerProviderFactoryTest.TestExporter> exporters = List.of(priorityExporter, regularExporter).iterator();
+
+        // lane processors by capacity
+        Map<Integer, QueueingProcessor> lanes = new HashMap<>();
+
+        PriorityLogRecordProcessor processor = new PriorityLogRecordProcessor(
+                MeterProvider.noop(),
+                Severity.ERROR,
+                2,
+                1,
+                exporters::next,
+                (e, capacity) -> lanes.computeIfAbsent(capacity, c -> new QueueingProcessor(e, c)));
+
+        try (SdkLoggerProvider provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build()) {
+
+            emit(provider, Severity.INFO, "i1");
+            emit(provider, Severity.ERROR, "e1");
+
+            Thread regularFlush = new Thread(() -> lanes.get(1).forceFlush());
+            regularFlush.start();
+            assertTrue(regularExporter.started.await(5, TimeUnit.SECONDS));
+
+            try {
+                assertTimeoutPreemptively(Duration.ofSeconds(5), () -> lanes.get(2).forceFlush());
+                assertEquals(List.of("e1"), bodies(priorityExporter));
+                assertEquals(List.of(), bodies(regularExporter));
+            } finally {
+                regularExporter.release.countDown();
+                regularFlush.join();
+            }
+
+            assertEquals(List.of("i1"), bodies(regularExporter));
+        }
+    }
+
+    private static <T> T add(List<? super T> list, T item) {
+        list.add(item);
+        return item;
+    }
+
+    private static void emit(SdkLoggerProvider provider, Severity severity, String body) {
+        provider.get("test").logRecordBuilder().setSeverity(severity).setBody(body).emit();
+    }
+
+    private static List<String> bodies(SdkLoggerProviderFactoryTest.TestExporter exporter) {
+        return exporter.exported.stream().map(l -> l.getBodyValue().asString()).toList();
+    }
+
+    // accumulates the records until flushed, emulating a batch processor with an unbounded queue
+    static class QueueingProcessor implements LogRecordProcessor {
+
+        private final LogRecordExporter exporter;
+        private final List<LogRecordData> queue;
+        final List<String> bodies;
+
+        QueueingProcessor(LogRecordExporter exporter, int capacity) {
+            this.exporter = exporter;
+            this.queue = new ArrayList<>();
+            this.bodies = new ArrayList<>();
+        }
+
+        @Override
+        public synchronized void onEmit(Context context, ReadWriteLogRecord logRecord) {
+            queue.add(logRecord.toLogRecordData());
+            bodies.add(logRecord.getBodyValue().asString());
+        }
+
+        @Override
+        public synchronized CompletableResultCode forceFlush() {
+            List<LogRecordData> batch = List.copyOf(queue);
+            queue.clear();
+            return exporter.export(batch);
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            forceFlush();
+            return exporter.shutdown();
+        }
+    }
+}
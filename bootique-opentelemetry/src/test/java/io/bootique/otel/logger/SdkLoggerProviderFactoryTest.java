@@ -0,0 +1,391 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.bootique.log.DefaultBootLogger;
+import io.bootique.shutdown.DefaultShutdownManager;
+import io.bootique.shutdown.ShutdownManager;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SdkLoggerProviderFactoryTest {
+
+    private ShutdownManager shutdownManager;
+    private TestExporter exporter;
+
+    @BeforeEach
+    void before() {
+        shutdownManager = new DefaultShutdownManager(Duration.ofSeconds(1), new DefaultBootLogger(false));
+        exporter = new TestExporter();
+    }
+
+    @AfterEach
+    void after() {
+        shutdownManager.shutdown();
+    }
+
+    @Test
+    public void logLimits() {
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setAttributeCountLimit(2)
+                .setAttributeValueLengthLimit(3)
+                .setExporters(List.of(exporter.factory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        provider.get("test").logRecordBuilder()
+                .setAttribute(AttributeKey.stringKey("a"), "abcdef")
+                .setAttribute(AttributeKey.stringKey("b"), "b")
+                .setAttribute(AttributeKey.stringKey("c"), "c")
+                .emit();
+
+        assertEquals(1, exporter.exported.size());
+        LogRecordData log = exporter.exported.get(0);
+        assertEquals(2, log.getAttributes().size());
+        assertEquals(3, log.getTotalAttributeCount());
+        assertEquals("abc", log.getAttributes().get(AttributeKey.stringKey("a")));
+    }
+
+    @Test
+    public void logLimits_Default() {
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setExporters(List.of(exporter.factory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        provider.get("test").logRecordBuilder()
+                .setAttribute(AttributeKey.stringKey("a"), "abcdef")
+                .setAttribute(AttributeKey.stringKey("b"), "b")
+                .setAttribute(AttributeKey.stringKey("c"), "c")
+                .emit();
+
+        assertEquals(1, exporter.exported.size());
+        LogRecordData log = exporter.exported.get(0);
+        assertEquals(3, log.getAttributes().size());
+        assertEquals("abcdef", log.getAttributes().get(AttributeKey.stringKey("a")));
+    }
+
+    @Test
+    public void minSeverity() {
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setMinSeverity("warn")
+                .setScopeMinSeverity(Map.of("com.foo", "debug", "com.foo.bar", "error"))
+                .setExporters(List.of(exporter.factory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        emit(provider, "x", Severity.INFO);
+        emit(provider, "x", Severity.WARN);
+        emit(provider, "x", Severity.UNDEFINED_SEVERITY_NUMBER);
+        emit(provider, "com.foo.Baz", Severity.DEBUG);
+        emit(provider, "com.foo.Baz", Severity.TRACE);
+        emit(provider, "com.foobar", Severity.DEBUG);
+        emit(provider, "com.foo.bar.Baz", Severity.WARN);
+        emit(provider, "com.foo.bar.Baz", Severity.ERROR);
+
+        assertEquals(List.of(
+                        "x:WARN",
+                        "x:UNDEFINED_SEVERITY_NUMBER",
+                        "com.foo.Baz:DEBUG",
+                        "com.foo.bar.Baz:ERROR"),
+                exporter.exported.stream().map(l -> l.getInstrumentationScopeInfo().getName() + ":" + l.getSeverity()).toList());
+    }
+
+    @Test
+    public void minSeverity_Invalid() {
+        SdkLoggerProviderFactory factory = new SdkLoggerProviderFactory(shutdownManager)
+                .setMinSeverity("xyz")
+                .setExporters(List.of(exporter.factory()));
+
+        assertThrows(IllegalArgumentException.class, () -> factory.create(Resource.empty(), MeterProvider.noop()));
+    }
+
+    @Test
+    public void recordMetrics() {
+        InMemoryMetricReader reader = InMemoryMetricReader.create();
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(reader).build()) {
+
+            SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                    .setRecordMetrics(true)
+                    .setRecordMetricsExceptionType(true)
+                    .setExporters(List.of(new NoneLogsExporterFactory()))
+                    .create(Resource.empty(), meterProvider);
+
+            emit(provider, "s1", Severity.ERROR);
+            emit(provider, "s1", Severity.ERROR);
+            emit(provider, "s1", Severity.INFO);
+            provider.get("s2").logRecordBuilder()
+                    .setSeverity(Severity.ERROR)
+                    .setAttribute(AttributeKey.stringKey("exception.type"), "java.io.IOException")
+                    .emit();
+
+            MetricData metric = reader.collectAllMetrics().stream()
+                    .filter(m -> m.getName().equals("log.records"))
+                    .findFirst()
+                    .orElseThrow();
+
+            Map<String, Long> counts = metric.getLongSumData().getPoints().stream().collect(Collectors.toMap(
+                    p -> p.getAttributes().get(AttributeKey.stringKey("otel.scope.name"))
+                            + ":" + p.getAttributes().get(AttributeKey.stringKey("log.severity"))
+                            + ":" + p.getAttributes().get(AttributeKey.stringKey("exception.type")),
+                    LongPointData::getValue));
+
+            assertEquals(Map.of(
+                    "s1:ERROR:null", 2L,
+                    "s1:INFO:null", 1L,
+                    "s2:ERROR:java.io.IOException", 1L), counts);
+        }
+    }
+
+    @Test
+    public void recordMetrics_NoopMeterProvider() {
+        SdkLoggerProviderFactory factory = new SdkLoggerProviderFactory(shutdownManager)
+                .setRecordMetrics(true)
+                .setExporters(List.of(new NoneLogsExporterFactory()));
+
+        // no point counting the records if the metrics are not exported
+        SdkLoggerProvider noMetrics = factory.create(Resource.empty(), MeterProvider.noop());
+        assertFalse(noMetrics.toString().contains("MetricsLogRecordProcessor"), noMetrics.toString());
+
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().build()) {
+            SdkLoggerProvider metrics = factory.create(Resource.empty(), meterProvider);
+            assertTrue(metrics.toString().contains("MetricsLogRecordProcessor"), metrics.toString());
+        }
+    }
+
+    @Test
+    public void deduplication_SummaryOnShutdown() {
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setDeduplication(new LogDeduplicationFactory().setMaxPerWindow(1).setWindow(new io.bootique.value.Duration("1h")))
+                .setExporters(List.of(exporter.factory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        emit(provider, "s1", Severity.ERROR);
+        emit(provider, "s1", Severity.ERROR);
+        emit(provider, "s1", Severity.ERROR);
+        assertEquals(1, exporter.exported.size());
+
+        // the summary of the last window must reach the exporter before it is shut down
+        shutdownManager.shutdown();
+        assertEquals(2, exporter.exported.size());
+        assertEquals(2L, exporter.exported.get(1).getAttributes().get(DeduplicatingLogRecordProcessor.SUPPRESSED_COUNT));
+        assertEquals(1, exporter.shutdownCount);
+    }
+
+    @Test
+    public void recordExportDuration() {
+        InMemoryMetricReader reader = InMemoryMetricReader.create();
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(reader).build()) {
+
+            SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                    .setExporters(List.of(exporter.batchFactory()))
+                    .create(Resource.empty(), meterProvider);
+
+            emit(provider, "s1", Severity.INFO);
+            assertTrue(provider.forceFlush().join(1, TimeUnit.SECONDS).isSuccess());
+            assertEquals(1, exporter.exported.size());
+            assertTrue(reader.collectAllMetrics().stream().noneMatch(m -> m.getName().equals("log.export.duration")));
+
+            SdkLoggerProvider timedProvider = new SdkLoggerProviderFactory(shutdownManager)
+                    .setRecordExportDuration(true)
+                    .setExporters(List.of(exporter.batchFactory()))
+                    .create(Resource.empty(), meterProvider);
+
+            emit(timedProvider, "s1", Severity.INFO);
+            assertTrue(timedProvider.forceFlush().join(1, TimeUnit.SECONDS).isSuccess());
+            assertEquals(2, exporter.exported.size());
+            assertTrue(reader.collectAllMetrics().stream().anyMatch(m -> m.getName().equals("log.export.duration")));
+        }
+    }
+
+    @Test
+    public void recordExportDuration_Forced() {
+        SdkLoggerProviderFactory factory = new SdkLoggerProviderFactory(shutdownManager)
+                .setExporters(List.of(exporter.batchFactory()));
+
+        InMemoryMetricReader forcedReader = InMemoryMetricReader.create();
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(forcedReader).build()) {
+            SdkLoggerProvider provider = factory.create(Resource.empty(), meterProvider, Clock.getDefault(), true);
+
+            emit(provider, "s1", Severity.INFO);
+            assertTrue(provider.forceFlush().join(1, TimeUnit.SECONDS).isSuccess());
+            assertTrue(forcedReader.collectAllMetrics().stream().anyMatch(m -> m.getName().equals("log.export.duration")));
+        }
+
+        // forcing doesn't change the factory
+        InMemoryMetricReader reader = InMemoryMetricReader.create();
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(reader).build()) {
+            SdkLoggerProvider provider = factory.create(Resource.empty(), meterProvider);
+
+            emit(provider, "s1", Severity.INFO);
+            assertTrue(provider.forceFlush().join(1, TimeUnit.SECONDS).isSuccess());
+            assertTrue(reader.collectAllMetrics().stream().noneMatch(m -> m.getName().equals("log.export.duration")));
+        }
+    }
+
+    @Test
+    public void maxQueueSize_MaxExportBatchSize() throws InterruptedException {
+        BlockingExporter exporter = new BlockingExporter();
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setMaxQueueSize(2)
+                .setMaxExportBatchSize(1)
+                .setExporters(List.of(exporter.batchFactory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        // block the export thread on the first record, so that the following records pile up in the queue
+        emit(provider, "s1", Severity.INFO);
+        assertTrue(exporter.started.await(1, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            emit(provider, "s1", Severity.INFO);
+        }
+
+        exporter.release.countDown();
+        assertTrue(provider.forceFlush().join(1, TimeUnit.SECONDS).isSuccess());
+
+        // the first record and the two that fit in the queue, each exported in its own batch
+        assertEquals(3, exporter.exported.size());
+        assertEquals(List.of(1, 1, 1), exporter.batchSizes);
+    }
+
+    @Test
+    public void maxExportBatchSize_ClampedToQueueSize() {
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setMaxQueueSize(2)
+                .setMaxExportBatchSize(10)
+                .setExporters(List.of(exporter.batchFactory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        emit(provider, "s1", Severity.INFO);
+        emit(provider, "s1", Severity.INFO);
+        assertTrue(provider.forceFlush().join(1, TimeUnit.SECONDS).isSuccess());
+        assertEquals(2, exporter.exported.size());
+
+        // the default batch size is also clamped
+        assertDoesNotThrow(() -> new SdkLoggerProviderFactory(shutdownManager)
+                .setMaxQueueSize(2)
+                .setExporters(List.of(exporter.batchFactory()))
+                .create(Resource.empty(), MeterProvider.noop()));
+    }
+
+    @Test
+    public void exportTimeout() {
+        TestExporter exporter = new TestExporter() {
+            @Override
+            public CompletableResultCode export(Collection<LogRecordData> logs) {
+                // never completes
+                return new CompletableResultCode();
+            }
+        };
+
+        SdkLoggerProvider provider = new SdkLoggerProviderFactory(shutdownManager)
+                .setExportTimeout(new io.bootique.value.Duration("100ms"))
+                .setExporters(List.of(exporter.batchFactory()))
+                .create(Resource.empty(), MeterProvider.noop());
+
+        emit(provider, "s1", Severity.INFO);
+
+        // with the default 30 sec timeout, the flush would be stuck behind the hanging export
+        assertTrue(provider.forceFlush().join(2, TimeUnit.SECONDS).isDone());
+    }
+
+    private static void emit(SdkLoggerProvider provider, String scope, Severity severity) {
+        provider.get(scope).logRecordBuilder().setSeverity(severity).setBody("b").emit();
+    }
+
+    static class TestExporter implements LogRecordExporter {
+
+        final List<LogRecordData> exported = new CopyOnWriteArrayList<>();
+        int shutdownCount;
+
+        // exported synchronously via the simple processor
+        LogsExporterFactory factory() {
+            return () -> new LogRecordExporterHolder(() -> this, false);
+        }
+
+        // exported asynchronously via the batch processor
+        LogsExporterFactory batchFactory() {
+            return () -> new LogRecordExporterHolder(() -> this, true);
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<LogRecordData> logs) {
+            if (shutdownCount > 0) {
+                return CompletableResultCode.ofFailure();
+            }
+
+            exported.addAll(logs);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            shutdownCount++;
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    static class BlockingExporter extends TestExporter {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<LogRecordData> logs) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableResultCode.ofFailure();
+            }
+
+            batchSizes.add(logs.size());
+            return super.export(logs);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.logger;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceBasedLogRecordProcessorTest {
+
+    private static final String SPAN_ID = "b7ad6b7169203331";
+
+    @Test
+    public void dropUnsampled() {
+        SdkLoggerProviderFactoryTest.TestExporter exporter = new SdkLoggerProviderFactoryTest.TestExporter();
+        TraceBasedLogRecordProcessor processor = new TraceBasedLogRecordProcessor(SimpleLogRecordProcessor.create(exporter), 0.);
+
+        try (SdkLoggerProvider provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build()) {
+            emit(provider, null, Severity.INFO, "no-trace");
+            emit(provider, spanContext("0af7651916cd43dd8448eb211c80319c", true), Severity.INFO, "sampled");
+            emit(provider, spanContext("0af7651916cd43dd8448eb211c80319c", false), Severity.INFO, "unsampled-info");
+            emit(provider, spanContext("0af7651916cd43dd8448eb211c80319c", false), Severity.WARN, "unsampled-warn");
+            emit(provider, spanContext("0af7651916cd43dd8448eb211c80319c", false), Severity.ERROR, "unsampled-error");
+        }
+
+        assertEquals(
+                List.of("no-trace", "sampled", "unsampled-warn", "unsampled-error"),
+                exporter.exported.stream().map(l -> l.getBodyValue().asString()).toList());
+    }
+
+    @Test
+    public void sampleUnsampled() {
+        SdkLoggerProviderFactoryTest.TestExporter exporter = new SdkLoggerProviderFactoryTest.TestExporter();
+        TraceBasedLogRecordProcessor processor = new TraceBasedLogRecordProcessor(SimpleLogRecordProcessor.create(exporter), 0.5);
+
+        // the hash of the first id is below the half of the range, the second - above
+        String kept = "0af7651916cd43dd0000000000000003";
+        String dropped = "0af7651916cd43dd0000000000000001";
+
+        try (SdkLoggerProvider provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build()) {
+            emit(provider, spanContext(kept, false), Severity.DEBUG, "k1");
+            emit(provider, spanContext(dropped, false), Severity.DEBUG, "d1");
+            emit(provider, spanContext(kept, false), Severity.INFO, "k2");
+            emit(provider, spanContext(dropped, false), Severity.INFO, "d2");
+        }
+
+        assertEquals(List.of("k1", "k2"), exporter.exported.stream().map(l -> l.getBodyValue().asString()).toList());
+    }
+
+    @Test
+    public void sampleUnsampled_IndependentOfRatioSampler() {
+        SdkLoggerProviderFactoryTest.TestExporter exporter = new SdkLoggerProviderFactoryTest.TestExporter();
+        TraceBasedLogRecordProcessor processor = new TraceBasedLogRecordProcessor(SimpleLogRecordProcessor.create(exporter), 0.25);
+
+        // the traces unsampled by the 50% ratio sampler upstream must still have about 25% of their logs kept
+        Sampler sampler = Sampler.traceIdRatioBased(0.5);
+        Random random = new Random(42);
+
+        int unsampled = 0;
+        try (SdkLoggerProvider provider = SdkLoggerProvider.builder().addLogRecordProcessor(processor).build()) {
+            for (int i = 0; i < 4000; i++) {
+                String traceId = TraceId.fromLongs(random.nextLong(), random.nextLong());
+                SamplingDecision decision = sampler
+                        .shouldSample(Context.root(), traceId, "s", SpanKind.INTERNAL, Attributes.empty(), List.of())
+                        .getDecision();
+
+                if (decision == SamplingDecision.DROP) {
+                    unsampled++;
+                    emit(provider, spanContext(traceId, false), Severity.INFO, "u");
+                }
+            }
+        }
+
+        double keptRatio = exporter.exported.size() / (double) unsampled;
+        assertTrue(unsampled > 1500, "Too few unsampled traces: " + unsampled);
+        assertTrue(keptRatio > 0.2 && keptRatio < 0.3, "Unexpected kept ratio: " + keptRatio);
+    }
+
+    @Test
+    public void invalidRatio() {
+        LogRecordProcessor delegate = SimpleLogRecordProcessor.create(new SdkLoggerProviderFactoryTest.TestExporter());
+        assertThrows(IllegalArgumentException.class, () -> new TraceBasedLogRecordProcessor(delegate, 1.1));
+    }
+
+    @Test
+    public void traceIdHash() {
+        long h1 = TraceBasedLogRecordProcessor.traceIdHash("0af7651916cd43dd0000000000000001");
+        long h2 = TraceBasedLogRecordProcessor.traceIdHash("0af7651916cd43dd0000000000000002");
+        long h3 = TraceBasedLogRecordProcessor.traceIdHash("1af7651916cd43dd0000000000000001");
+
+        assertTrue(h1 >= 0);
+        assertTrue(h2 >= 0);
+        assertTrue(h3 >= 0);
+        assertNotEquals(h1, h2);
+        assertNotEquals(h1, h3, "Upper bytes must be included in the hash");
+        assertEquals(h1, TraceBasedLogRecordProcessor.traceIdHash("0af7651916cd43dd0000000000000001"));
+    }
+
+    private static SpanContext spanContext(String traceId, boolean sampled) {
+        return SpanContext.create(
+                traceId,
+                SPAN_ID,
+                sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+                TraceState.getDefault());
+    }
+
+    private static void emit(SdkLoggerProvider provider, SpanContext spanContext, Severity severity, String body) {
+        Context context = spanContext != null ? Context.root().with(Span.wrap(spanContext)) : Context.root();
+        provider.get("test").logRecordBuilder().setContext(context).setSeverity(severity).setBody(body).emit();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.opentelemetry.exporter.logging.LoggingMetricExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiMetricExporterTest {
+
+    @Test
+    public void create_Single() {
+        MetricExporter e = new TestExporter(MemoryMode.REUSABLE_DATA);
+        assertSame(e, MultiMetricExporter.create(List.of(e)));
+    }
+
+    @Test
+    public void export() {
+        TestExporter e1 = new TestExporter(MemoryMode.REUSABLE_DATA);
+        TestExporter e2 = new TestExporter(MemoryMode.REUSABLE_DATA);
+        MetricExporter multi = MultiMetricExporter.create(List.of(e1, e2));
+
+        List<MetricData> data = List.of();
+        assertTrue(multi.export(data).isSuccess());
+
+        assertEquals(1, e1.exported.size());
+        assertSame(data, e1.exported.get(0));
+        assertEquals(1, e2.exported.size());
+        assertSame(data, e2.exported.get(0));
+    }
+
+    @Test
+    public void export_Exception() {
+        TestExporter e1 = new TestExporter(MemoryMode.REUSABLE_DATA) {
+            @Override
+            public CompletableResultCode export(Collection<MetricData> metrics) {
+                throw new RuntimeException("test");
+            }
+        };
+        TestExporter e2 = new TestExporter(MemoryMode.REUSABLE_DATA);
+        MetricExporter multi = MultiMetricExporter.create(List.of(e1, e2));
+
+        assertFalse(multi.export(List.of()).isSuccess());
+        assertEquals(1, e2.exported.size());
+    }
+
+    @Test
+    public void getMemoryMode() {
+
+        // fan-out never shares reusable data between the exporters
+        assertEquals(MemoryMode.IMMUTABLE_DATA, MultiMetricExporter.create(List.of(
+                new TestExporter(MemoryMode.REUSABLE_DATA),
+                new TestExporter(MemoryMode.REUSABLE_DATA))).getMemoryMode());
+
+        assertEquals(MemoryMode.IMMUTABLE_DATA, MultiMetricExporter.create(List.of(
+                new TestExporter(MemoryMode.REUSABLE_DATA),
+                new TestExporter(MemoryMode.IMMUTABLE_DATA))).getMemoryMode());
+    }
+
+    @Test
+    public void exportKey() {
+        assertEquals(
+                MultiMetricExporter.exportKey(new TestExporter(MemoryMode.REUSABLE_DATA)),
+                MultiMetricExporter.exportKey(LoggingMetricExporter.create()));
+
+        assertNotEquals(
+                MultiMetricExporter.exportKey(new TestExporter(MemoryMode.REUSABLE_DATA)),
+                MultiMetricExporter.exportKey(LoggingMetricExporter.create(AggregationTemporality.DELTA)));
+    }
+
+    static class TestExporter implements MetricExporter {
+
+        final List<Collection<MetricData>> exported = new ArrayList<>();
+        final MemoryMode memoryMode;
+
+        TestExporter(MemoryMode memoryMode) {
+            this.memoryMode = memoryMode;
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+
+        @Override
+        public MemoryMode getMemoryMode() {
+            return memoryMode;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<MetricData> metrics) {
+            exported.add(metrics);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
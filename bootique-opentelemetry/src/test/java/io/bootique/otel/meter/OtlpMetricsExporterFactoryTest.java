@@ -0,0 +1,114 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.bootique.otel.otlp.OtlpExporterEndpoint;
+import io.bootique.otel.otlp.OtlpProtocol;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OtlpMetricsExporterFactoryTest {
+
+    private static final OtlpExporterEndpoint ENDPOINT =
+            new OtlpExporterEndpoint("http://localhost:4318", OtlpProtocol.http_protobuf, Map.of());
+
+    @Test
+    public void temporalityPreference_Default() {
+        MetricExporter exporter = new OtlpMetricsExporterFactory(ENDPOINT).create().exporter();
+        try {
+            assertEquals(AggregationTemporality.CUMULATIVE, exporter.getAggregationTemporality(InstrumentType.COUNTER));
+            assertEquals(AggregationTemporality.CUMULATIVE, exporter.getAggregationTemporality(InstrumentType.HISTOGRAM));
+        } finally {
+            exporter.shutdown();
+        }
+    }
+
+    @Test
+    public void temporalityPreference_Delta() {
+        MetricExporter exporter = new OtlpMetricsExporterFactory(ENDPOINT).setTemporalityPreference("delta").create().exporter();
+        try {
+            assertEquals(AggregationTemporality.DELTA, exporter.getAggregationTemporality(InstrumentType.COUNTER));
+            assertEquals(AggregationTemporality.DELTA, exporter.getAggregationTemporality(InstrumentType.HISTOGRAM));
+            assertEquals(AggregationTemporality.CUMULATIVE, exporter.getAggregationTemporality(InstrumentType.UP_DOWN_COUNTER));
+        } finally {
+            exporter.shutdown();
+        }
+    }
+
+    @Test
+    public void temporalityPreference_LowMemory() {
+        MetricExporter exporter = new OtlpMetricsExporterFactory(ENDPOINT).setTemporalityPreference("LowMemory").create().exporter();
+        try {
+            assertEquals(AggregationTemporality.DELTA, exporter.getAggregationTemporality(InstrumentType.COUNTER));
+            assertEquals(AggregationTemporality.CUMULATIVE, exporter.getAggregationTemporality(InstrumentType.OBSERVABLE_COUNTER));
+        } finally {
+            exporter.shutdown();
+        }
+    }
+
+    @Test
+    public void temporalityPreference_Invalid() {
+        OtlpMetricsExporterFactory factory = new OtlpMetricsExporterFactory(ENDPOINT).setTemporalityPreference("xyz");
+        assertThrows(IllegalArgumentException.class, factory::create);
+    }
+
+    @Test
+    public void defaultHistogramAggregation_Default() {
+        MetricExporter exporter = new OtlpMetricsExporterFactory(ENDPOINT).create().exporter();
+        try {
+            assertEquals(
+                    Aggregation.defaultAggregation().toString(),
+                    exporter.getDefaultAggregation(InstrumentType.HISTOGRAM).toString());
+        } finally {
+            exporter.shutdown();
+        }
+    }
+
+    @Test
+    public void defaultHistogramAggregation_Base2() {
+        MetricExporter exporter = new OtlpMetricsExporterFactory(ENDPOINT)
+                .setDefaultHistogramAggregation("base2_exponential_bucket_histogram")
+                .setHistogramMaxBuckets(80)
+                .setHistogramMaxScale(10)
+                .create().exporter();
+        try {
+            assertEquals(
+                    Aggregation.base2ExponentialBucketHistogram(80, 10).toString(),
+                    exporter.getDefaultAggregation(InstrumentType.HISTOGRAM).toString());
+            assertEquals(
+                    Aggregation.defaultAggregation().toString(),
+                    exporter.getDefaultAggregation(InstrumentType.COUNTER).toString());
+        } finally {
+            exporter.shutdown();
+        }
+    }
+
+    @Test
+    public void defaultHistogramAggregation_Invalid() {
+        OtlpMetricsExporterFactory factory = new OtlpMetricsExporterFactory(ENDPOINT).setDefaultHistogramAggregation("xyz");
+        assertThrows(IllegalArgumentException.class, factory::create);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeriodicExportSchedulerTest {
+
+    @Test
+    public void initialDelayNanos() {
+        assertEquals(60, PeriodicExportScheduler.initialDelayNanos(60, 60, 0, false, 6_015));
+        assertEquals(67, PeriodicExportScheduler.initialDelayNanos(60, 60, 7, false, 6_015));
+    }
+
+    @Test
+    public void initialDelayNanos_Aligned() {
+        assertEquals(45, PeriodicExportScheduler.initialDelayNanos(60, 60, 0, true, 6_015));
+        assertEquals(52, PeriodicExportScheduler.initialDelayNanos(60, 60, 7, true, 6_015));
+        assertEquals(60, PeriodicExportScheduler.initialDelayNanos(60, 60, 0, true, 6_000));
+    }
+
+    @Test
+    public void scheduleAtFixedRate() {
+        PeriodicExportScheduler scheduler = new PeriodicExportScheduler(TimeUnit.SECONDS.toNanos(30), false);
+        try {
+            ScheduledFuture<?> f = scheduler.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.SECONDS);
+            long delay = f.getDelay(TimeUnit.SECONDS);
+            assertTrue(delay > 29 && delay <= 31, () -> "Unexpected delay: " + delay);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void create() {
+        PeriodicExportScheduler scheduler = PeriodicExportScheduler.create(null, false);
+        try {
+            ScheduledFuture<?> f = scheduler.scheduleAtFixedRate(() -> {}, 10, 10, TimeUnit.SECONDS);
+            assertTrue(f.getDelay(TimeUnit.SECONDS) <= 10);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
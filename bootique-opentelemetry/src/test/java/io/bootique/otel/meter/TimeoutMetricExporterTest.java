@@ -0,0 +1,104 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.meter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeoutMetricExporterTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void startScheduler() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void export() {
+        TimeoutMetricExporter exporter = new TimeoutMetricExporter(
+                new MultiMetricExporterTest.TestExporter(MemoryMode.REUSABLE_DATA),
+                Duration.ofMillis(100),
+                scheduler);
+
+        assertTrue(exporter.export(List.of()).isSuccess());
+    }
+
+    @Test
+    public void export_Delayed() {
+        CompletableResultCode delegateResult = new CompletableResultCode();
+        TimeoutMetricExporter exporter = new TimeoutMetricExporter(hangingExporter(delegateResult), Duration.ofSeconds(10), scheduler);
+
+        CompletableResultCode result = exporter.export(List.of());
+        assertFalse(result.isDone());
+
+        delegateResult.succeed();
+        assertTrue(result.isDone());
+        assertTrue(result.isSuccess());
+    }
+
+    @Test
+    public void export_Timeout() {
+        TimeoutMetricExporter exporter = new TimeoutMetricExporter(
+                hangingExporter(new CompletableResultCode()),
+                Duration.ofMillis(50),
+                scheduler);
+
+        CompletableResultCode result = exporter.export(List.of()).join(5, TimeUnit.SECONDS);
+        assertTrue(result.isDone());
+        assertFalse(result.isSuccess());
+    }
+
+    @Test
+    public void export_SchedulerStopped() {
+        scheduler.shutdown();
+
+        CompletableResultCode delegateResult = new CompletableResultCode();
+        TimeoutMetricExporter exporter = new TimeoutMetricExporter(hangingExporter(delegateResult), Duration.ofMillis(50), scheduler);
+
+        assertSame(delegateResult, exporter.export(List.of()));
+    }
+
+    private static MultiMetricExporterTest.TestExporter hangingExporter(CompletableResultCode result) {
+        return new MultiMetricExporterTest.TestExporter(MemoryMode.REUSABLE_DATA) {
+            @Override
+            public CompletableResultCode export(Collection<MetricData> metrics) {
+                return result;
+            }
+        };
+    }
+}
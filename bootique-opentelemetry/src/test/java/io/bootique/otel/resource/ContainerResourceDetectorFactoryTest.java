@@ -0,0 +1,58 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContainerResourceDetectorFactoryTest {
+
+    static final String ID = "ac679f8a8319c8cf7d38e1adf263bc08d231f2ff81abda3915f6e8ba4d64156a";
+
+    @Test
+    public void create_NotCacheable() {
+        assertFalse(new ContainerResourceDetectorFactory().create().isCacheable());
+    }
+
+    @Test
+    public void findCgroupId() {
+        assertEquals(ID, ContainerResourceDetectorFactory.findCgroupId(List.of(
+                "13:name=systemd:/",
+                "12:cpu,cpuacct:/docker/" + ID)));
+
+        assertEquals(ID, ContainerResourceDetectorFactory.findCgroupId(List.of(
+                "0::/system.slice/docker-" + ID + ".scope")));
+
+        assertNull(ContainerResourceDetectorFactory.findCgroupId(List.of("0::/")));
+        assertNull(ContainerResourceDetectorFactory.findCgroupId(List.of("0::/user.slice/user-1000.slice/session-3.scope")));
+    }
+
+    @Test
+    public void findMountinfoId() {
+        assertEquals(ID, ContainerResourceDetectorFactory.findMountinfoId(List.of(
+                "736 720 0:56 / / rw,relatime master:330 - overlay overlay rw",
+                "761 736 254:1 /docker/containers/" + ID + "/hostname /etc/hostname rw,relatime - ext4 /dev/vda1 rw")));
+
+        assertNull(ContainerResourceDetectorFactory.findMountinfoId(List.of(
+                "736 720 0:56 / / rw,relatime master:330 - overlay overlay rw")));
+    }
+}
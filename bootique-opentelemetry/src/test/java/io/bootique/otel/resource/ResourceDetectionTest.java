@@ -0,0 +1,133 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.resource;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.resources.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceDetectionTest {
+
+    static final AttributeKey<String> A = AttributeKey.stringKey("a");
+    static final AttributeKey<String> B = AttributeKey.stringKey("b");
+    static final AttributeKey<Long> C = AttributeKey.longKey("c");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void detect() {
+        ResourceDetection detection = new ResourceDetection(List.of(
+                () -> Resource.create(Attributes.of(A, "a1", B, "b1")),
+                () -> Resource.create(Attributes.of(B, "b2"))), Duration.ofSeconds(5), null);
+
+        Resource r = detection.detect();
+        assertEquals("a1", r.getAttribute(A));
+        assertEquals("b2", r.getAttribute(B), "The later detector must win");
+    }
+
+    @Test
+    public void detect_Failure() {
+        ResourceDetection detection = new ResourceDetection(List.of(
+                () -> {
+                    throw new RuntimeException("Test failure");
+                },
+                () -> Resource.create(Attributes.of(A, "a1"))), Duration.ofSeconds(5), null);
+
+        assertEquals(Attributes.of(A, "a1"), detection.detect().getAttributes());
+    }
+
+    @Test
+    public void detect_Timeout() {
+        CountDownLatch never = new CountDownLatch(1);
+
+        ResourceDetection detection = new ResourceDetection(List.of(
+                () -> {
+                    never.await();
+                    return Resource.create(Attributes.of(B, "b1"));
+                },
+                () -> Resource.create(Attributes.of(A, "a1"))), Duration.ofMillis(100), null);
+
+        long t0 = System.nanoTime();
+        Resource r = detection.detect();
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        assertEquals(Attributes.of(A, "a1"), r.getAttributes());
+        assertTrue(ms < 2000, "Took too long: " + ms);
+    }
+
+    @Test
+    public void detect_Cache() throws InterruptedException, IOException {
+        Path cache = dir.resolve("sub").resolve("resource.properties");
+
+        CountDownLatch cached = new CountDownLatch(1);
+        ResourceDetector process = new ResourceDetector() {
+            @Override
+            public Resource detect() {
+                return Resource.create(Attributes.of(C, 5L));
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return false;
+            }
+        };
+
+        Resource r1 = new ResourceDetection(List.of(
+                () -> Resource.create(Attributes.of(A, "a1", C, 1L)),
+                process), Duration.ofSeconds(5), cache).detect();
+
+        assertEquals(Attributes.of(A, "a1", C, 5L), r1.getAttributes());
+
+        // the cache is written in the background
+        for (int i = 0; i < 100 && !Files.exists(cache); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(cache));
+
+        // the second detection must not wait for the cacheable detector
+        Resource r2 = new ResourceDetection(List.of(
+                () -> {
+                    cached.await();
+                    return Resource.create(Attributes.of(A, "a2"));
+                },
+                process), Duration.ofSeconds(5), cache).detect();
+
+        // only the string attributes are cached
+        assertEquals(Attributes.of(A, "a1", C, 5L), r2.getAttributes());
+
+        // the cache is refreshed when the cacheable detector finishes
+        cached.countDown();
+        for (int i = 0; i < 100 && !Files.readString(cache).contains("a=a2"); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.readString(cache).contains("a=a2"));
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.otel.trace;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrioritySpanProcessorTest {
+
+    @Test
+    public void routeAndDrop() {
+
+        InMemoryMetricReader reader = InMemoryMetricReader.create();
+        List<InMemorySpanExporter> exporters = new ArrayList<>();
+
+        // lane processors by capacity
+        Map<Integer, QueueingProcessor> lanes = new HashMap<>();
+        List<List<String>> exported;
+
+        try (SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(reader).build()) {
+
+            PrioritySpanProcessor processor = new PrioritySpanProcessor(
+                    meterProvider,
+                    2,
+                    1,
+                    () -> {
+                        InMemorySpanExporter exporter = InMemorySpanExporter.create();
+                        exporters.add(exporter);
+                        return exporter;
+                    },
+                    (e, capacity) -> lanes.computeIfAbsent(capacity, c -> new QueueingProcessor(e)));
+
+            try (SdkTracerProvider provider = SdkTracerProvider.builder().addSpanProcessor(processor).build()) {
+
+                // the regular lane takes any spans while it has capacity
+                span(provider, "e1", true);
+
+                // the regular lane is full, so only the errors go to the priority lane
+                span(provider, "o1", false);
+                span(provider, "e2", true);
+                span(provider, "e3", true);
+                span(provider, "e4", true);
+
+                // the export frees up the lanes
+                provider.forceFlush();
+                span(provider, "o2", false);
+                span(provider, "e5", true);
+
+                // captured before the provider is closed, as the in-memory exporter is reset on shutdown
+                provider.forceFlush();
+                exported = exporters.stream().map(PrioritySpanProcessorTest::names).toList();
+            }
+
+            assertEquals(List.of("e1", "o2"), lanes.get(1).names);
+            assertEquals(List.of("e2", "e3", "e5"), lanes.get(2).names);
+
+            // each lane has its own exporter, the priority lane is created first
+            assertEquals(List.of(List.of("e2", "e3", "e5"), List.of("e1", "o2")), exported);
+
+            Map<Attributes, Long> dropped = reader.collectAllMetrics().stream()
+                    .filter(m -> m.getName().equals(PrioritySpanProcessor.DROPPED_COUNTER_NAME))
+                    .flatMap(m -> m.getLongSumData().getPoints().stream())
+                    .collect(Collectors.toMap(LongPointData::getAttributes, LongPointData::getValue));
+
+            assertEquals(Map.of(
+                    Attributes.of(PrioritySpanProcessor.LANE, "priority"), 1L,
+                    Attributes.of(PrioritySpanProcessor.LANE, "regular"), 1L), dropped);
+        }
+    }
+
+    @Test
+    public void blockedRegularExportDoesNotDelayPriorityExport() throws InterruptedException {
+
+        InMemorySpanExporter priorityExporter = InMemorySpanExporter.create();
+        BlockingExporter regularExporter = new BlockingExporter();
+        Iterator<SpanExporter> exporters = List.<SpanExporter>of(priorityExporter, regularExporter).iterator();
+
+        // lane processors by capacity
+        Map<Integer, QueueingProcessor> lanes = new HashMap<>();
+
+        PrioritySpanProcessor processor = new PrioritySpanProcessor(
+                MeterProvider.noop(),
+                2,
+                1,
+                exporters::next,
+                (e, capacity) -> lanes.computeIfAbsent(capacity, c -> new QueueingProcessor(e)));
+
+        try (SdkTracerProvider provider = SdkTracerProvider.builder().addSpanProcessor(processor).build()) {
+
+            span(provider, "o1", false);
+            span(provider, "e1", true);
+
+            Thread regularFlush = new Thread(() -> lanes.get(1).forceFlush());
+            regularFlush.start();
+            assertTrue(regularExporter.started.await(5, TimeUnit.SECONDS));
+
+            try {
+                assertTimeoutPreemptively(Duration.ofSeconds(5), () -> lanes.get(2).forceFlush());
+                assertEquals(List.of("e1"), names(priorityExporter));
+                assertEquals(List.of(), regularExporter.names);
+            } finally {
+                regularExporter.release.countDown();
+                regularFlush.join();
+            }
+
+            assertEquals(List.of("o1"), regularExporter.names);
+        }
+    }
+
+    private static List<String> names(InMemorySpanExporter exporter) {
+        return exporter.getFinishedSpanItems().stream().map(SpanData::getName).toList();
+    }
+
+    private static void span(SdkTracerProvider provider, String name, boolean error) {
+        Span span = provider.get("test").spanBuilder(name).startSpan();
+        if (error) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    // accumulates the spans until flushed, emulating a batch processor with an unbounded queue
+    static class QueueingProcessor implements SpanProcessor {
+
+        private final SpanExporter exporter;
+        private final List<SpanData> queue;
+        final List<String> names;
+
+        QueueingProcessor(SpanExporter exporter) {
+            this.exporter = exporter;
+            this.queue = new ArrayList<>();
+            this.names = new ArrayList<>();
+        }
+
+        @Override
+        public void onStart(Context parentContext, ReadWriteSpan span) {
+        }
+
+        @Override
+        public boolean isStartRequired() {
+            return false;
+        }
+
+        @Override
+        public synchronized void onEnd(ReadableSpan span) {
+            queue.add(span.toSpanData());
+            names.add(span.getName());
+        }
+
+        @Override
+        public boolean isEndRequired() {
+            return true;
+        }
+
+        @Override
+        public synchronized CompletableResultCode forceFlush() {
+            List<SpanData> batch = List.copyOf(queue);
+            queue.clear();
+            return exporter.export(batch);
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            forceFlush();
+            return exporter.shutdown();
+        }
+    }
+
+    static class BlockingExporter implements SpanExporter {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> names = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableResultCode.ofFailure();
+            }
+
+            spans.forEach(s -> names.add(s.getName()));
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}